@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.*;
+
+import java.util.Random;
+
+/**
+ * Random patterns and sentences of the benchmarks, drawn from a fixed vocabulary so that the same seed always
+ * gives the same workload. Every sentence carries POS tags, the synonym scenario needs
+ * {@link BenchDictionaryExtension#install()}.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public enum BenchScenario {
+    /**
+     * Literal tokens only, with optional and repeated tokens.
+     */
+    LITERAL {
+        String pattern(Random random) {
+            return word(random) + " " + word(random) + "? " + word(random) + "* " + word(random);
+        }
+    },
+    /**
+     * Mostly POS classes, anchored by a literal.
+     */
+    POS {
+        String pattern(Random random) {
+            return "<" + tag(random) + "> " + word(random) + " <" + tag(random) + ">? <" + tag(random) + "*>";
+        }
+    },
+    /**
+     * Mostly synonym tokens, each looking up the synsets of the sentence tokens.
+     */
+    SYN {
+        String pattern(Random random) {
+            return "[" + word(random) + "] [" + word(random) + "]? " + word(random) + " [" + word(random) + "]";
+        }
+    },
+    /**
+     * Variables consuming one and several tokens between literals.
+     */
+    VARIABLE {
+        String pattern(Random random) {
+            return word(random) + " $first " + word(random) + " $rest*";
+        }
+    };
+
+    public static final int VOCABULARY = 200;
+    private static final String[] TAGS = {"NN", "NNS", "VB", "VBD", "VBP", "JJ", "RB", "DT", "IN", "PRP"};
+
+    abstract String pattern(Random random);
+
+    private static String word(Random random) {
+        return "w" + random.nextInt(VOCABULARY);
+    }
+
+    private static String tag(Random random) {
+        return TAGS[random.nextInt(TAGS.length)];
+    }
+
+    public String[] patterns(int count, long seed) {
+        Random random = new Random(seed);
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = pattern(random);
+        }
+        return result;
+    }
+
+    public Matcher matcher(int count, long seed) {
+        Matcher result = new Matcher();
+        MatcherUpdate update = result.update();
+        String[] patterns = patterns(count, seed);
+        for (int i = 0; i < patterns.length; i++) {
+            update.add(new PatternMatcher(String.valueOf(i), patterns[i]));
+        }
+        update.publish();
+        return result;
+    }
+
+    public static TextAnnotation[] sentences(int count, int length, long seed) {
+        Random random = new Random(seed);
+        int level = TextAnnotationConstants.getLevel(TextAnnotationConstants.POS);
+        TextAnnotation[] result = new TextAnnotation[count];
+        for (int i = 0; i < count; i++) {
+            TextAnnotation sentence = new TextAnnotation(length);
+            Annotation annotation = new Annotation();
+            for (int j = 0; j < length; j++) {
+                sentence.addTextToken(new TextToken(word(random)));
+                annotation.addToken(new AnnotationToken(j, TextAnnotationConstants.transformAnnotationLabel(
+                        level, tag(random))));
+            }
+            sentence.addAnnotation(level, annotation);
+            result[i] = sentence;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.openjdk.jmh.annotations.*;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcherFactory;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the graph of one pattern with {@link TokenMatcherFactory}, for each {@link BenchScenario}. The
+ * synonym scenario includes the synset lookups of the stand-in dictionary.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FactoryBenchmark {
+    private static final int PATTERNS = 1024;
+
+    @Param({"LITERAL", "POS", "SYN", "VARIABLE"})
+    public BenchScenario scenario;
+
+    @Param({"42"})
+    public long seed;
+
+    private String[] patterns;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchDictionaryExtension.install();
+        patterns = scenario.patterns(PATTERNS, seed);
+        next = 0;
+    }
+
+    @Benchmark
+    public TokenMatcher factoryPattern() {
+        next = (next + 1) % patterns.length;
+        return TokenMatcherFactory.factoryPatternMatcher(Locale.ENGLISH, patterns[next]);
+    }
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.openjdk.jmh.annotations.*;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the interpreted walk with the generated classes, on random literal patterns with optional, repeated and
+ * variable tokens. Run with <code>ant bench</code>.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratedMatcherBenchmark {
+    private static final int VOCABULARY = 200;
+    private static final int SENTENCES = 256;
+
+    @Param({"interpreted", "generated"})
+    public String mode;
+
+    @Param({"100", "1000"})
+    public int patterns;
+
+    private Matcher matcher;
+    private TextAnnotation[] sentences;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        matcher = new Matcher();
+        matcher.setGenerated("generated".equals(mode));
+        for (int i = 0; i < patterns; i++) {
+            matcher.addMatcher(new PatternMatcher(String.valueOf(i),
+                                                  word(random) + " " + word(random) + "? " + word(random) + "* $var" +
+                                                  i + " " + word(random)));
+        }
+
+        sentences = new TextAnnotation[SENTENCES];
+        for (int i = 0; i < sentences.length; i++) {
+            int length = 5 + random.nextInt(15);
+            sentences[i] = new TextAnnotation(length);
+            for (int j = 0; j < length; j++) {
+                sentences[i].addTextToken(new TextToken(word(random)));
+            }
+        }
+
+        // measures the generated classes rather than the interpreter used until they are compiled
+        matcher.awaitGenerated();
+    }
+
+    private static String word(Random random) {
+        return "w" + random.nextInt(VOCABULARY);
+    }
+
+    @Benchmark
+    public TemplateMatchResult matchSentence() {
+        next = (next + 1) % sentences.length;
+        return matcher.match(sentences[next]);
+    }
+}
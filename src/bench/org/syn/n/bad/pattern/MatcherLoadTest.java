@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.*;
+import org.syn.n.bad.metrics.LatencyHistogram;
+
+import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a tokenised corpus against a set of patterns, from several threads and at a target rate, and reports the
+ * latency percentiles, the throughput, the allocation rate and the garbage collections of the measured period.
+ * <p/>
+ * The corpus has one sentence per line, with the tokens separated by spaces; a token can carry its POS tag as
+ * <code>word/TAG</code>. The patterns are either a pattern file, see {@link PatternBundle#readPatterns}, or a
+ * <code>.bundle</code> file. With a target rate, each sentence is timed from the moment it was scheduled, so a
+ * stalled matcher shows in the latencies instead of slowing the load down. Run with <code>ant load</code>.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class MatcherLoadTest {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Matcher matcher;
+    private final List<TextAnnotation> corpus;
+    private final int threads;
+    private final double rate;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong allocated = new AtomicLong();
+
+    public MatcherLoadTest(Matcher matcher, List<TextAnnotation> corpus, int threads, double rate) {
+        this.matcher = matcher;
+        this.corpus = corpus;
+        this.threads = threads;
+        this.rate = rate;
+    }
+
+    public static List<TextAnnotation> readCorpus(Reader reader) throws IOException {
+        int level = TextAnnotationConstants.getLevel(TextAnnotationConstants.POS);
+        List<TextAnnotation> result = new ArrayList<TextAnnotation>();
+        BufferedReader input = new BufferedReader(reader);
+        String line;
+        while ((line = input.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] tokens = line.split("\\s+");
+            TextAnnotation sentence = new TextAnnotation(tokens.length);
+            Annotation annotation = null;
+            for (int i = 0; i < tokens.length; i++) {
+                int separator = tokens[i].lastIndexOf('/');
+                if (separator > 0 && separator < tokens[i].length() - 1) {
+                    if (annotation == null) {
+                        annotation = new Annotation();
+                    }
+                    annotation.addToken(new AnnotationToken(i, TextAnnotationConstants.transformAnnotationLabel(
+                            level, tokens[i].substring(separator + 1))));
+                    sentence.addTextToken(new TextToken(tokens[i].substring(0, separator)));
+                } else {
+                    sentence.addTextToken(new TextToken(tokens[i]));
+                }
+            }
+            if (annotation != null) {
+                sentence.addAnnotation(level, annotation);
+            }
+            result.add(sentence);
+        }
+        return result;
+    }
+
+    /**
+     * Runs the load for the given time and returns the report of the measured period, after a warm-up that is not
+     * measured.
+     */
+    public Report run(long warmupMillis, long durationMillis) throws InterruptedException {
+        run(warmupMillis, false);
+        latencies.reset();
+        allocated.set(0);
+
+        Map<String, long[]> gcBefore = collections();
+        long start = System.nanoTime();
+        run(durationMillis, true);
+        long elapsed = System.nanoTime() - start;
+        Map<String, long[]> gcAfter = collections();
+
+        Map<String, long[]> gc = new TreeMap<String, long[]>();
+        for (Map.Entry<String, long[]> entry : gcAfter.entrySet()) {
+            long[] before = gcBefore.get(entry.getKey());
+            long[] after = entry.getValue();
+            gc.put(entry.getKey(), before == null ? after : new long[]{after[0] - before[0], after[1] - before[1]});
+        }
+        return new Report(latencies, elapsed, allocated.get(), gc);
+    }
+
+    private void run(long millis, final boolean measured) throws InterruptedException {
+        if (millis <= 0) {
+            return;
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        // each thread takes its share of the target rate
+        final long interval = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * threads / rate) : 0;
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * corpus.size() / threads;
+            Thread worker = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        replay(offset, deadline, interval, measured);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, "load-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+    }
+
+    private void replay(int offset, long deadline, long interval, boolean measured) {
+        long allocatedBefore = allocatedBytes();
+        long scheduled = System.nanoTime();
+        int next = offset;
+        while (true) {
+            long begin = System.nanoTime();
+            if (interval > 0) {
+                if (scheduled >= deadline) {
+                    break;
+                }
+                if (scheduled > begin) {
+                    LockSupport.parkNanos(scheduled - begin);
+                }
+                begin = scheduled;
+                scheduled += interval;
+            } else if (begin >= deadline) {
+                break;
+            }
+
+            matcher.match(corpus.get(next));
+            next = (next + 1) % corpus.size();
+            if (measured) {
+                latencies.record(System.nanoTime() - begin);
+            }
+        }
+
+        if (measured && allocatedBefore >= 0) {
+            allocated.addAndGet(allocatedBytes() - allocatedBefore);
+        }
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or -1 if the JVM does not track them.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static Map<String, long[]> collections() {
+        Map<String, long[]> result = new HashMap<String, long[]>();
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            result.put(bean.getName(), new long[]{bean.getCollectionCount(), bean.getCollectionTime()});
+        }
+        return result;
+    }
+
+    public static final class Report {
+        private final LatencyHistogram latencies;
+        private final long elapsedNanos;
+        private final long allocatedBytes;
+        private final Map<String, long[]> collections;
+
+        private Report(LatencyHistogram latencies, long elapsedNanos, long allocatedBytes,
+                       Map<String, long[]> collections) {
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.collections = collections;
+        }
+
+        public LatencyHistogram getLatencies() {
+            return latencies;
+        }
+
+        public double getThroughput() {
+            return latencies.getCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        /**
+         * Bytes allocated per second by the matching threads.
+         */
+        public double getAllocationRate() {
+            return allocatedBytes * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        public String toString() {
+            StringBuilder result = new StringBuilder();
+            result.append(String.format(Locale.ROOT, "sentences:   %d in %.1f s%n", latencies.getCount(),
+                                        elapsedNanos / 1e9));
+            result.append(String.format(Locale.ROOT, "throughput:  %.1f sentences/s%n", getThroughput()));
+            for (double percentile : PERCENTILES) {
+                String label = percentile == Math.rint(percentile) ? String.valueOf((long) percentile) :
+                               String.valueOf(percentile);
+                result.append(String.format(Locale.ROOT, "p%-10s %.3f ms%n", label + ":",
+                                            latencies.getPercentile(percentile) / 1e6));
+            }
+            result.append(String.format(Locale.ROOT, "max:        %.3f ms%n", latencies.getMax() / 1e6));
+            result.append(String.format(Locale.ROOT, "allocation:  %.1f MB/s%n", getAllocationRate() / (1 << 20)));
+            for (Map.Entry<String, long[]> entry : collections.entrySet()) {
+                result.append(String.format(Locale.ROOT, "gc %s: %d collections, %d ms%n", entry.getKey(),
+                                            entry.getValue()[0], entry.getValue()[1]));
+            }
+            return result.toString();
+        }
+    }
+
+    private static Matcher loadMatcher(File file, Locale language, String mode) throws IOException {
+        Matcher matcher;
+        if (file.getName().endsWith(".bundle")) {
+            matcher = PatternBundle.load(file);
+        } else {
+            Reader reader = new InputStreamReader(new FileInputStream(file), UTF8);
+            try {
+                matcher = new Matcher();
+                matcher.update().addAll(PatternBundle.readPatterns(reader, language)).publish();
+            } finally {
+                reader.close();
+            }
+        }
+
+        if ("compiled".equals(mode)) {
+            matcher.setCompiled(true);
+        } else if ("exhaustive".equals(mode)) {
+            matcher.setExhaustive(true);
+        } else if ("generated".equals(mode)) {
+            matcher.setGenerated(true);
+            matcher.awaitGenerated();
+        } else if (!"scan".equals(mode)) {
+            throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+        return matcher;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: MatcherLoadTest <patterns file> <corpus file> [--threads n] [--rate " +
+                               "sentences/s] [--duration s] [--warmup s] [--mode scan|compiled|exhaustive|" +
+                               "generated] [--language tag]");
+            System.exit(1);
+        }
+
+        Map<String, String> options = new HashMap<String, String>();
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            options.put(args[i], args[i + 1]);
+        }
+        int threads = Integer.parseInt(option(options, "--threads", "1"));
+        double rate = Double.parseDouble(option(options, "--rate", "0"));
+        long duration = (long) (Double.parseDouble(option(options, "--duration", "30")) * 1000);
+        long warmup = (long) (Double.parseDouble(option(options, "--warmup", "10")) * 1000);
+        Locale language = Locale.forLanguageTag(option(options, "--language", "en"));
+
+        Matcher matcher = loadMatcher(new File(args[0]), language, option(options, "--mode", "scan"));
+        Reader reader = new InputStreamReader(new FileInputStream(args[1]), UTF8);
+        List<TextAnnotation> corpus;
+        try {
+            corpus = readCorpus(reader);
+        } finally {
+            reader.close();
+        }
+        if (corpus.isEmpty()) {
+            System.err.println("Empty corpus " + args[1]);
+            System.exit(1);
+        }
+
+        System.out.println("Replaying " + corpus.size() + " sentences against " +
+                           matcher.getVersion().getMatchers().size() + " patterns with " + threads + " threads" +
+                           (rate > 0 ? " at " + rate + " sentences/s" : ""));
+        System.out.print(new MatcherLoadTest(matcher, corpus, threads, rate).run(warmup, duration));
+    }
+
+    private static String option(Map<String, String> options, String name, String defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : value;
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+package org.syn.n.bad.pattern;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of replacing every registered pattern by id in a single {@link MatcherUpdate}, the patterns sharing a common
+ * literal so that their posting lists are long. Run with <code>ant bench</code>.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateBenchmark {
+    @Param({"5000", "20000"})
+    public int patterns;
+
+    private Matcher matcher;
+    private List<PatternMatcher> first;
+    private List<PatternMatcher> second;
+    private boolean flip;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        first = new ArrayList<PatternMatcher>(patterns);
+        second = new ArrayList<PatternMatcher>(patterns);
+        for (int i = 0; i < patterns; i++) {
+            first.add(new PatternMatcher("p" + i, "the w" + (i % 500) + " x" + (i % 97) + " $v" + i));
+            second.add(new PatternMatcher("p" + i, "the w" + (i % 500) + " y" + (i % 97) + " $v" + i));
+        }
+        matcher = new Matcher();
+        matcher.update().addAll(first).publish();
+    }
+
+    @Benchmark
+    public MatcherVersion replaceAllById() {
+        flip = !flip;
+        return matcher.update().addAll(flip ? second : first).publish();
+    }
+}
@@ -37,17 +37,23 @@
 
 package org.syn.n.bad.annotation;
 
+import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 
 /**
+ * The annotation tokens of one annotation level. The tokens are kept in insertion order and are also indexed by
+ * their text token position, the index being rebuilt lazily after the token list changes.
+ *
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 12/9/12
  */
 
 public class Annotation {
-    private List<AnnotationToken> tokens = new LinkedList<AnnotationToken>();
+    private TokenList tokens = new TokenList();
+    private volatile PositionIndex index;
 
     public Annotation() {
     }
@@ -73,7 +79,7 @@ public class Annotation {
     }
 
     public Collection<AnnotationToken> getTokens(byte label) {
-        Collection<AnnotationToken> result = new LinkedList<AnnotationToken>();
+        Collection<AnnotationToken> result = new ArrayList<AnnotationToken>();
 
         for (AnnotationToken token : tokens) {
             if (token.getAnnotationLabel() == label) {
@@ -84,23 +90,131 @@ public class Annotation {
         return result;
     }
 
+    /**
+     * Returns the tokens annotating the given text token, in insertion order. The result is a read-only view that
+     * is shared between calls and is valid until the token list changes.
+     */
     public Collection<AnnotationToken> getTokens(int textTokenIndex) {
-        Collection<AnnotationToken> result = new LinkedList<AnnotationToken>();
-
-        for (AnnotationToken token : tokens) {
-            if (token.getTextTokenIndex() == textTokenIndex) {
-                result.add(token);
-            }
+        PositionIndex current = index;
+        if (current == null || current.version != tokens.getVersion()) {
+            current = new PositionIndex(tokens);
+            index = current;
         }
-
-        return result;
+        return current.get(textTokenIndex);
     }
 
     public List<AnnotationToken> getTokens() {
         return tokens;
     }
 
+    /**
+     * Replaces the tokens of this annotation with a copy of the given list.
+     */
     public void setTokens(List<AnnotationToken> tokens) {
-        this.tokens = tokens;
+        this.tokens = new TokenList(tokens);
+        index = null;
+    }
+
+    /**
+     * The token list, counting every change made to it, including the ones made through its iterators.
+     */
+    private static class TokenList extends ArrayList<AnnotationToken> {
+        private static final long serialVersionUID = 1L;
+
+        private int replaced;
+
+        private TokenList() {
+        }
+
+        private TokenList(Collection<AnnotationToken> tokens) {
+            super(tokens);
+        }
+
+        public AnnotationToken set(int index, AnnotationToken element) {
+            replaced++;
+            return super.set(index, element);
+        }
+
+        private long getVersion() {
+            return ((long) modCount << 32) | (replaced & 0xFFFFFFFFL);
+        }
+    }
+
+    /**
+     * The tokens grouped by text token position: the tokens of position <code>i</code> are
+     * <code>flat[offsets[i]]</code> to <code>flat[offsets[i + 1] - 1]</code>.
+     */
+    private static class PositionIndex {
+        private final long version;
+        private final AnnotationToken[] flat;
+        private final int[] offsets;
+        private final List<List<AnnotationToken>> views;
+
+        private PositionIndex(TokenList tokens) {
+            version = tokens.getVersion();
+
+            int positions = 0;
+            for (AnnotationToken token : tokens) {
+                positions = Math.max(positions, token.getTextTokenIndex() + 1);
+            }
+
+            offsets = new int[positions + 1];
+            for (AnnotationToken token : tokens) {
+                if (token.getTextTokenIndex() >= 0) {
+                    offsets[token.getTextTokenIndex() + 1]++;
+                }
+            }
+            for (int i = 0; i < positions; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            flat = new AnnotationToken[offsets[positions]];
+            int[] next = new int[positions];
+            System.arraycopy(offsets, 0, next, 0, positions);
+            for (AnnotationToken token : tokens) {
+                if (token.getTextTokenIndex() >= 0) {
+                    flat[next[token.getTextTokenIndex()]++] = token;
+                }
+            }
+
+            views = new ArrayList<List<AnnotationToken>>(positions);
+            for (int i = 0; i < positions; i++) {
+                if (offsets[i] == offsets[i + 1]) {
+                    views.add(Collections.<AnnotationToken>emptyList());
+                } else {
+                    views.add(new PositionView(flat, offsets[i], offsets[i + 1]));
+                }
+            }
+        }
+
+        private List<AnnotationToken> get(int textTokenIndex) {
+            if (textTokenIndex < 0 || textTokenIndex >= views.size()) {
+                return Collections.emptyList();
+            }
+            return views.get(textTokenIndex);
+        }
+    }
+
+    private static class PositionView extends AbstractList<AnnotationToken> {
+        private final AnnotationToken[] flat;
+        private final int from;
+        private final int to;
+
+        private PositionView(AnnotationToken[] flat, int from, int to) {
+            this.flat = flat;
+            this.from = from;
+            this.to = to;
+        }
+
+        public AnnotationToken get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+            }
+            return flat[from + index];
+        }
+
+        public int size() {
+            return to - from;
+        }
     }
 }
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.annotation;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Primitive columns of a sentence, built once before matching it: the symbol of every token (see
+ * {@link TokenSymbols}) and a bitmask of its POS labels. The token matchers test these arrays instead of going back
+ * to the tokens and their annotations.
+ * <p/>
+ * The symbols are those of the patterns that existed when the view was built, so a view should not outlive the
+ * match it was built for.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class EncodedTokens {
+    private static final int POS_WORDS = TextAnnotationConstants.POS_MASK_WORDS;
+    private static final int POS_LEVEL = TextAnnotationConstants.getLevel(TextAnnotationConstants.POS);
+
+    private final TextAnnotation tokens;
+    private final int[] symbols;
+    private final long[] posMasks;
+    private final ConcurrentMap<Locale, AtomicReferenceArray<Set<String>>> synsets =
+            new ConcurrentHashMap<Locale, AtomicReferenceArray<Set<String>>>();
+
+    public EncodedTokens(TextAnnotation tokens) {
+        this.tokens = tokens;
+        int size = tokens.size();
+        symbols = new int[size];
+        posMasks = new long[size * POS_WORDS];
+
+        for (int i = 0; i < size; i++) {
+            symbols[i] = TokenSymbols.lookup(tokens.getToken(i).getText());
+        }
+
+        Annotation annotation = tokens.getAnnotation(POS_LEVEL);
+        if (annotation != null) {
+            for (AnnotationToken token : annotation.getTokens()) {
+                int index = token.getTextTokenIndex();
+                if (index >= 0 && index < size) {
+                    TextAnnotationConstants.addPOSLabel(posMasks, index * POS_WORDS, token.getAnnotationLabel());
+                }
+            }
+        }
+    }
+
+    public TextAnnotation getTokens() {
+        return tokens;
+    }
+
+    public int size() {
+        return symbols.length;
+    }
+
+    public int getSymbol(int index) {
+        return symbols[index];
+    }
+
+    public boolean hasPOS(int index, long[] mask) {
+        int offset = index * POS_WORDS;
+        return (posMasks[offset] & mask[0]) != 0 || (posMasks[offset + 1] & mask[1]) != 0;
+    }
+
+    /**
+     * The synsets of every token in the given language, filled by the synonym matchers the first time they need
+     * them. The view may be shared by the threads matching the same sentence.
+     */
+    public AtomicReferenceArray<Set<String>> getSynsetCache(Locale language) {
+        AtomicReferenceArray<Set<String>> result = synsets.get(language);
+        if (result == null) {
+            AtomicReferenceArray<Set<String>> created = new AtomicReferenceArray<Set<String>>(symbols.length);
+            result = synsets.putIfAbsent(language, created);
+            if (result == null) {
+                result = created;
+            }
+        }
+        return result;
+    }
+}
@@ -62,17 +62,24 @@ public class TextAnnotationConstants {
         annotationLevels.put(DUN, 5);
     }
 
+    /**
+     * The number of <code>long</code> words of a POS mask, one bit for every positive label.
+     */
+    public static final int POS_MASK_WORDS = 2;
+    //---- Label tables, indexed by the unsigned value of the label
+    private static final int LABELS = 256;
     //---- POS Mappings
     private static final Map<String, Byte> posLabels = new HashMap<String, Byte>();
-    private static final Map<Byte, String> posIndex = new HashMap<Byte, String>();
+    private static final Map<String, Set<Byte>> posLabelSets = new HashMap<String, Set<Byte>>();
+    private static final String[] posIndex = new String[LABELS];
     private static final Map<String, Set<Byte>> genericPOSLabel = new HashMap<String, Set<Byte>>();
-    private static final Map<Byte, String> genericPOSIndex = new HashMap<Byte, String>();
+    private static final String[] genericPOSIndex = new String[LABELS];
     //---- Chunking Mappings
     private static final Map<String, Byte> chkLabels = new HashMap<String, Byte>();
-    private static final Map<Byte, String> chkIndex = new HashMap<Byte, String>();
+    private static final String[] chkIndex = new String[LABELS];
     //---- NER Mappings
     private static final Map<String, Byte> nerLabels = new HashMap<String, Byte>();
-    private static final Map<Byte, String> nerIndex = new HashMap<Byte, String>();
+    private static final String[] nerIndex = new String[LABELS];
 
     public static int getLevel(String annotationType) {
         return annotationLevels.get(annotationType);
@@ -97,20 +104,15 @@ public class TextAnnotationConstants {
     }
 
     public static String transformAnnotationLabel(int level, byte label) {
-        try {
-            switch (level) {
-                case 0: //POS
-                    return posIndex.get(label);
-                case 1: //CHK
-                    return chkIndex.get(label);
-                case 2: //NER
-                    return nerIndex.get(label);
-                default:
-                    return "";
-            }
-        } catch (NullPointerException e) {
-            System.err.println("Invalid label: " + label);
-            return "";
+        switch (level) {
+            case 0: //POS
+                return posIndex[label & 0xFF];
+            case 1: //CHK
+                return chkIndex[label & 0xFF];
+            case 2: //NER
+                return nerIndex[label & 0xFF];
+            default:
+                return "";
         }
     }
 
@@ -121,34 +123,66 @@ public class TextAnnotationConstants {
                 return result;
             } else {
                 pattern = pattern.substring(0, pattern.indexOf('*') - 1);
-                Byte res = posLabels.get(pattern);
-                if (res != null) {
-                    return new HashSet<Byte>(Arrays.asList(res));
-                } else {
-                    return new HashSet<Byte>();
-                }
+                Set<Byte> res = posLabelSets.get(pattern);
+                return res != null ? res : Collections.<Byte>emptySet();
             }
         } else {
-            return new HashSet<Byte>(Arrays.asList(posLabels.get(pattern)));
+            Set<Byte> res = posLabelSets.get(pattern);
+            return res != null ? res : Collections.<Byte>singleton(null);
         }
     }
 
     public static String getGenericPOSLabel(byte index) {
-        return genericPOSIndex.get(index);
+        return genericPOSIndex[index & 0xFF];
+    }
+
+    /**
+     * Bitmask of the POS labels of a pattern, see {@link #getGenericPOSLabel(String)}.
+     */
+    public static long[] getGenericPOSMask(String pattern) {
+        return createPOSMask(getGenericPOSLabel(pattern));
+    }
+
+    public static long[] createPOSMask(Collection<Byte> labels) {
+        long[] mask = new long[POS_MASK_WORDS];
+        for (Byte label : labels) {
+            if (label != null) {
+                addPOSLabel(mask, 0, label);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Sets the bit of the label in the mask starting at <code>offset</code>. Negative labels are ignored.
+     */
+    public static void addPOSLabel(long[] mask, int offset, byte label) {
+        if (label >= 0) {
+            mask[offset + (label >>> 6)] |= 1L << (label & 63);
+        }
+    }
+
+    public static boolean containsPOSLabel(long[] mask, byte label) {
+        return label >= 0 && (mask[label >>> 6] & (1L << (label & 63))) != 0;
+    }
+
+    public static boolean isEmptyPOSMask(long[] mask) {
+        return mask[0] == 0 && mask[1] == 0;
     }
 
     private static void addPOSLabel(String label, int index) {
         posLabels.put(label, (byte) index);
-        posIndex.put((byte) index, label);
+        posLabelSets.put(label, Collections.singleton((byte) index));
+        posIndex[index & 0xFF] = label;
     }
 
     private static void addGenericPOSLabel(String label, int... indexes) {
         Set<Byte> set = new HashSet<Byte>();
         for (int index : indexes) {
             set.add((byte) index);
-            genericPOSIndex.put((byte) index, label);
+            genericPOSIndex[index & 0xFF] = label;
         }
-        genericPOSLabel.put(label, set);
+        genericPOSLabel.put(label, Collections.unmodifiableSet(set));
     }
 
     static {
@@ -263,7 +297,7 @@ public class TextAnnotationConstants {
 
     private static void addCHKLabel(String label, int index) {
         chkLabels.put(label, (byte) index);
-        chkIndex.put((byte) index, label);
+        chkIndex[index & 0xFF] = label;
     }
 
     static {
@@ -303,7 +337,7 @@ public class TextAnnotationConstants {
 
     private static void addNERLabel(String label, int index) {
         nerLabels.put(label, (byte) index);
-        nerIndex.put((byte) index, label);
+        nerIndex[index & 0xFF] = label;
     }
 
     static {
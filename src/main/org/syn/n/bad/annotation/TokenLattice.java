@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.annotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A confusion network of recognized words: a sequence of slots, each holding the scored alternatives for one word
+ * position. The alternatives of all the slots are stored one after the other in a single {@link TextAnnotation},
+ * so the token matchers can test them directly, by their flat index.
+ * <p/>
+ * The scores are added along a path, so they should be log probabilities or any other additive score where higher
+ * is better.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class TokenLattice {
+    private static final int POS_LEVEL = TextAnnotationConstants.getLevel(TextAnnotationConstants.POS);
+
+    private final TextAnnotation tokens;
+    private final List<Integer> slotStarts = new ArrayList<Integer>();
+    private double[] scores = new double[16];
+
+    public TokenLattice() {
+        tokens = new TextAnnotation();
+        tokens.addAnnotation(POS_LEVEL, new Annotation());
+    }
+
+    /**
+     * Starts a new slot; the following alternatives are added to it.
+     */
+    public int addSlot() {
+        slotStarts.add(tokens.size());
+        return slotStarts.size() - 1;
+    }
+
+    public int addAlternative(TextToken token, double score, AnnotationToken... posTokens) {
+        if (slotStarts.isEmpty()) {
+            throw new IllegalStateException("No slot was added to the lattice");
+        }
+
+        int index = tokens.addTextToken(token);
+        if (index >= scores.length) {
+            scores = Arrays.copyOf(scores, scores.length * 2);
+        }
+        scores[index] = score;
+
+        for (AnnotationToken posToken : posTokens) {
+            posToken.setTextTokenIndex(index);
+            tokens.addAnnotationToken(POS_LEVEL, posToken);
+        }
+        return index;
+    }
+
+    public TextAnnotation getTokens() {
+        return tokens;
+    }
+
+    public int size() {
+        return slotStarts.size();
+    }
+
+    public int getSlotStart(int slot) {
+        return slotStarts.get(slot);
+    }
+
+    public int getSlotEnd(int slot) {
+        return slot + 1 < slotStarts.size() ? slotStarts.get(slot + 1) : tokens.size();
+    }
+
+    public double getScore(int index) {
+        return scores[index];
+    }
+
+    /**
+     * Builds the sentence made of the given alternatives, with their annotations.
+     */
+    public TextAnnotation getPath(int[] indexes) {
+        TextAnnotation result = new TextAnnotation(indexes.length);
+        for (Integer level : tokens.getAnnotations().keySet()) {
+            result.addAnnotation(level, new Annotation());
+        }
+
+        for (int index : indexes) {
+            int position = result.addTextToken(new TextToken(tokens.getToken(index).getText()));
+            for (Annotation annotation : tokens.getAnnotations().values()) {
+                for (AnnotationToken token : annotation.getTokens(index)) {
+                    result.addAnnotationToken(token.getAnnotationLevel(),
+                                              new AnnotationToken(position, token.getAnnotationLabel()));
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.annotation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Integer ids of the words used by the patterns. Only the patterns intern their words; the sentences only look them
+ * up, so arbitrary input never grows the table and a word no pattern uses gets {@link #UNKNOWN}.
+ * <p/>
+ * The words are never released, since any pattern still alive may use them, so the table stops growing at about
+ * {@value #MAX_SYMBOLS} words. The words interned after that get {@link #UNKNOWN} too, and their matchers compare the
+ * token text instead.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public final class TokenSymbols {
+    public static final int UNKNOWN = -1;
+    public static final int MAX_SYMBOLS = 1 << 18;
+
+    private static final ConcurrentMap<String, Integer> symbols = new ConcurrentHashMap<String, Integer>();
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private TokenSymbols() {
+    }
+
+    public static int intern(String text) {
+        Integer symbol = symbols.get(text);
+        if (symbol == null) {
+            if (counter.get() >= MAX_SYMBOLS) {
+                return UNKNOWN;
+            }
+            Integer created = counter.getAndIncrement();
+            symbol = symbols.putIfAbsent(text, created);
+            if (symbol == null) {
+                symbol = created;
+            }
+        }
+        return symbol;
+    }
+
+    public static int lookup(String text) {
+        if (text == null) {
+            return UNKNOWN;
+        }
+
+        Integer symbol = symbols.get(text);
+        return symbol == null ? UNKNOWN : symbol;
+    }
+}
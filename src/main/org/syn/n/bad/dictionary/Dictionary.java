@@ -38,12 +38,16 @@
 package org.syn.n.bad.dictionary;
 
 import org.syn.n.bad.dictionary.extensions.AbstractDictionaryExtension;
+import org.syn.n.bad.metrics.LatencyMetrics;
+import org.syn.n.bad.metrics.MBeans;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -65,6 +69,9 @@ public class Dictionary {
     private static final String TAG_CONFIG = "config";
     private final List<AbstractDictionaryExtension> dictionaryExtensions = new LinkedList<AbstractDictionaryExtension>();
     private AbstractDictionaryExtension defaultDictionary = null;
+    private volatile LatencyMetrics wordMetrics = null;
+    private volatile Map<AbstractDictionaryExtension, LatencyMetrics> extensionMetrics = null;
+    private final List<ObjectName> objectNames = new ArrayList<ObjectName>();
 
     private Dictionary(InputStream configInput) throws DictionaryException {
         setupDictionaryExtensions(configInput);
@@ -175,7 +182,60 @@ public class Dictionary {
         }
     }
 
+    /**
+     * Registers the metrics of {@link #getWord(Locale, String, POS...)} in the platform MBean server, as
+     * <code>org.syn.n.bad:type=Dictionary,name=&lt;name&gt;</code>, and those of each extension as
+     * <code>org.syn.n.bad:type=DictionaryExtension,name=&lt;name&gt;.&lt;prefix&gt;</code>. The lookups are only
+     * timed while the metrics are registered.
+     */
+    public synchronized void registerMBeans(String name) throws JMException {
+        unregisterMBeans();
+        LatencyMetrics word = new LatencyMetrics();
+        Map<AbstractDictionaryExtension, LatencyMetrics> extensions =
+                new IdentityHashMap<AbstractDictionaryExtension, LatencyMetrics>();
+        List<AbstractDictionaryExtension> all = new ArrayList<AbstractDictionaryExtension>(dictionaryExtensions);
+        if (defaultDictionary != null) {
+            all.add(defaultDictionary);
+        }
+
+        objectNames.add(MBeans.register(word, MBeans.name("Dictionary", name)));
+        for (AbstractDictionaryExtension extension : all) {
+            LatencyMetrics metrics = new LatencyMetrics();
+            extensions.put(extension, metrics);
+            objectNames.add(MBeans.register(metrics, MBeans.name("DictionaryExtension",
+                                                                 name + "." + extension.getDictionaryPrefix())));
+        }
+        extensionMetrics = extensions;
+        wordMetrics = word;
+    }
+
+    public synchronized void unregisterMBeans() throws JMException {
+        wordMetrics = null;
+        extensionMetrics = null;
+        for (ObjectName objectName : objectNames) {
+            MBeans.unregister(objectName);
+        }
+        objectNames.clear();
+    }
+
     public Word getWord(Locale language, String word, POS... pos) throws DictionaryException {
+        LatencyMetrics recorder = wordMetrics;
+        if (recorder == null) {
+            return lookupWord(language, word, pos);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Word result = lookupWord(language, word, pos);
+            recorder.record(System.nanoTime() - start, !result.getSynsetIds().isEmpty());
+            return result;
+        } catch (DictionaryException e) {
+            recorder.recordError();
+            throw e;
+        }
+    }
+
+    private Word lookupWord(Locale language, String word, POS... pos) throws DictionaryException {
         Set<String> result = new HashSet<String>();
 
         List<POS> restrictions;
@@ -186,13 +246,32 @@ public class Dictionary {
         }
 
         for (AbstractDictionaryExtension extension : dictionaryExtensions) {
-            result.addAll(extension.getSynsetIDs(language, word, restrictions));
+            result.addAll(getSynsetIDs(extension, language, word, restrictions));
         }
 
         if (result.isEmpty() && defaultDictionary != null) {
-            result.addAll(defaultDictionary.getSynsetIDs(language, word, restrictions));
+            result.addAll(getSynsetIDs(defaultDictionary, language, word, restrictions));
         }
 
         return new Word(word, result);
     }
+
+    private Set<String> getSynsetIDs(AbstractDictionaryExtension extension, Locale language, String word,
+                                     List<POS> restrictions) throws DictionaryException {
+        Map<AbstractDictionaryExtension, LatencyMetrics> metrics = extensionMetrics;
+        LatencyMetrics recorder = metrics == null ? null : metrics.get(extension);
+        if (recorder == null) {
+            return extension.getSynsetIDs(language, word, restrictions);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Set<String> result = extension.getSynsetIDs(language, word, restrictions);
+            recorder.record(System.nanoTime() - start, !result.isEmpty());
+            return result;
+        } catch (DictionaryException e) {
+            recorder.recordError();
+            throw e;
+        }
+    }
 }
@@ -55,6 +55,10 @@ public abstract class AbstractDictionaryExtension {
         this.dictionaryPrefix = dictionaryPrefix;
     }
 
+    public String getDictionaryPrefix() {
+        return dictionaryPrefix;
+    }
+
     protected String generateID(POS pos, long offset) {
         if (pos == null) {
             return dictionaryPrefix + "#" + offset;
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters and latency histogram of an operation, exposed as an MXBean. The call rate is counted per
+ * second over the last {@value #RATE_SECONDS} seconds, or the time since the registration or the last reset when it
+ * is shorter, so it follows the current load rather than the average since the last reset.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class LatencyMetrics implements LatencyMetricsMXBean {
+    public static final int RATE_SECONDS = 10;
+    private static final long SECOND = 1000000000L;
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final long origin = System.nanoTime();
+    private volatile long started = origin;
+    // one slot per second, the high half holds the second and the low half the calls counted during it
+    private final AtomicLongArray seconds = new AtomicLongArray(RATE_SECONDS + 1);
+
+    public void record(long nanos) {
+        record(nanos, false);
+    }
+
+    /**
+     * Records a call and whether it found something.
+     */
+    public void record(long nanos, boolean hit) {
+        record(nanos, hit, System.nanoTime());
+    }
+
+    void record(long nanos, boolean hit, long now) {
+        latencies.record(nanos);
+        if (hit) {
+            hits.increment();
+        }
+
+        long second = (now - origin) / SECOND;
+        int slot = (int) (second % seconds.length());
+        long tag = second << 32;
+        while (true) {
+            long current = seconds.get(slot);
+            long next = (current & ~COUNT_MASK) == tag ? current + 1 : tag | 1;
+            if (seconds.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public double getCallsPerSecond() {
+        return getCallsPerSecond(System.nanoTime());
+    }
+
+    double getCallsPerSecond(long now) {
+        // the current second is still being counted, the rate covers the complete ones before it
+        long current = (now - origin) / SECOND;
+        long first = Math.max((started - origin) / SECOND, current - RATE_SECONDS);
+        long calls = 0;
+        for (long second = Math.max(0, first); second < current; second++) {
+            long value = seconds.get((int) (second % seconds.length()));
+            if (value >>> 32 == second) {
+                calls += value & COUNT_MASK;
+            }
+        }
+
+        long elapsed = current * SECOND - Math.max(started - origin, first * SECOND);
+        return elapsed <= 0 ? 0 : calls * (double) SECOND / elapsed;
+    }
+
+    public double getMeanMicros() {
+        return latencies.getMean() / 1e3;
+    }
+
+    public double getP50Micros() {
+        return latencies.getPercentile(50) / 1e3;
+    }
+
+    public double getP99Micros() {
+        return latencies.getPercentile(99) / 1e3;
+    }
+
+    public double getP999Micros() {
+        return latencies.getPercentile(99.9) / 1e3;
+    }
+
+    public double getMaxMicros() {
+        return latencies.getMax() / 1e3;
+    }
+
+    public void reset() {
+        reset(System.nanoTime());
+    }
+
+    void reset(long now) {
+        started = now;
+        latencies.reset();
+        hits.reset();
+        errors.reset();
+        for (int i = 0; i < seconds.length(); i++) {
+            seconds.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.Annotation;
+import org.syn.n.bad.annotation.AnnotationToken;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextAnnotationConstants;
+import org.syn.n.bad.pattern.token.POSMatcher;
+import org.syn.n.bad.pattern.token.SimpleTokenMatcher;
+import org.syn.n.bad.pattern.token.SynMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.*;
+
+/**
+ * Inverted index from the mandatory tokens of each pattern (literals, POS classes and synsets) to the patterns
+ * requiring them. Every path from the start node to a final node goes through all the mandatory tokens of a
+ * pattern, so a sentence missing one of them can never be matched by that pattern.
+ * <p/>
+ * A copy shares the maps and the posting lists of the index it was made from: changing it only duplicates the map
+ * buckets it touches, and the posting lists are {@link SharedList}s. Adding one pattern to a copy costs about the same
+ * whatever the size of the index.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class AnchorIndex {
+    private final Buckets<String, SharedList<Entry>> literalAnchors;
+    private final Map<Set<Byte>, SharedList<Entry>> posAnchors;
+    private final Buckets<PatternMatcher, SharedList<Entry>> entries;
+    private SharedList<Entry> unanchored;
+    private int sequence = 0;
+
+    AnchorIndex() {
+        literalAnchors = new Buckets<String, SharedList<Entry>>();
+        posAnchors = new HashMap<Set<Byte>, SharedList<Entry>>();
+        entries = new Buckets<PatternMatcher, SharedList<Entry>>();
+        unanchored = SharedList.<Entry>empty();
+    }
+
+    AnchorIndex(AnchorIndex index) {
+        literalAnchors = new Buckets<String, SharedList<Entry>>(index.literalAnchors);
+        posAnchors = new HashMap<Set<Byte>, SharedList<Entry>>(index.posAnchors);
+        entries = new Buckets<PatternMatcher, SharedList<Entry>>(index.entries);
+        unanchored = index.unanchored;
+        sequence = index.sequence;
+    }
+
+    void add(PatternMatcher matcher) {
+        add(matcher, -1);
+    }
+
+    /**
+     * Adds a pattern at the given position of the insertion order, such as the one of a pattern it replaces, or
+     * after all the others if the position is negative.
+     */
+    void add(PatternMatcher matcher, int position) {
+        Entry entry = new Entry(matcher, position < 0 ? sequence++ : position);
+        for (TokenMatcher anchor : collectAnchors(matcher.getStart())) {
+            if (anchor instanceof SimpleTokenMatcher) {
+                if (entry.literals.add(anchor.toString())) {
+                    String literal = anchor.toString();
+                    literalAnchors.put(literal, SharedList.append(literalAnchors.get(literal), entry));
+                }
+            } else if (anchor instanceof POSMatcher) {
+                Set<Byte> labels = new HashSet<Byte>(((POSMatcher) anchor).getPOSLabels());
+                if (entry.posLabels.add(labels)) {
+                    posAnchors.put(labels, SharedList.append(posAnchors.get(labels), entry));
+                }
+            } else if (anchor instanceof SynMatcher) {
+                entry.synAnchors.add((SynMatcher) anchor);
+            }
+        }
+
+        if (entry.getRequired() == 0) {
+            unanchored = SharedList.append(unanchored, entry);
+        }
+        entries.put(matcher, SharedList.append(entries.get(matcher), entry));
+    }
+
+    /**
+     * Removes the first registration of the pattern and returns its position in the insertion order, or -1 if the
+     * pattern is not indexed.
+     */
+    int remove(PatternMatcher matcher) {
+        return removeAll(Collections.singletonList(matcher))[0];
+    }
+
+    /**
+     * Removes the first registration of each pattern, the next one when a pattern is given again, and returns their
+     * positions in the insertion order, -1 for the patterns not indexed. Each posting list is copied once however
+     * many of its patterns are removed, so a whole batch costs about the same as a single removal.
+     */
+    int[] removeAll(List<PatternMatcher> matchers) {
+        int[] result = new int[matchers.size()];
+        Set<Entry> removed = Collections.newSetFromMap(new IdentityHashMap<Entry, Boolean>());
+        Map<PatternMatcher, Integer> taken = new IdentityHashMap<PatternMatcher, Integer>();
+        Set<String> literals = new HashSet<String>();
+        Set<Set<Byte>> labels = new HashSet<Set<Byte>>();
+        boolean anchorless = false;
+
+        for (int i = 0; i < result.length; i++) {
+            PatternMatcher matcher = matchers.get(i);
+            SharedList<Entry> list = entries.get(matcher);
+            Integer count = taken.get(matcher);
+            int index = count == null ? 0 : count;
+            if (list == null || index >= list.size()) {
+                result[i] = -1;
+                continue;
+            }
+
+            Entry entry = list.get(index);
+            taken.put(matcher, index + 1);
+            removed.add(entry);
+            literals.addAll(entry.literals);
+            labels.addAll(entry.posLabels);
+            anchorless |= entry.getRequired() == 0;
+            result[i] = entry.sequence;
+        }
+
+        if (removed.isEmpty()) {
+            return result;
+        }
+        for (PatternMatcher matcher : taken.keySet()) {
+            entries.put(matcher, entries.get(matcher).withoutAll(removed));
+        }
+        for (String literal : literals) {
+            literalAnchors.put(literal, literalAnchors.get(literal).withoutAll(removed));
+        }
+        for (Set<Byte> label : labels) {
+            SharedList<Entry> postings = posAnchors.get(label).withoutAll(removed);
+            if (postings == null) {
+                posAnchors.remove(label);
+            } else {
+                posAnchors.put(label, postings);
+            }
+        }
+        if (anchorless) {
+            unanchored = unanchored.withoutAll(removed);
+            if (unanchored == null) {
+                unanchored = SharedList.<Entry>empty();
+            }
+        }
+        return result;
+    }
+
+    List<PatternMatcher> candidates(TextAnnotation tokens, int from, int to) {
+        return candidates(tokens, from, to, new MatchScratch());
+    }
+
+    /**
+     * Returns, in insertion order, the patterns whose mandatory tokens are all present between <code>from</code>
+     * and <code>to</code>.
+     */
+    List<PatternMatcher> candidates(TextAnnotation tokens, int from, int to, MatchScratch scratch) {
+        scratch.clear();
+        Map<Entry, Integer> hits = scratch.hits;
+
+        for (int i = from; i < to; i++) {
+            scratch.texts.add(tokens.getToken(i).getText());
+        }
+        for (String text : scratch.texts) {
+            hit(hits, literalAnchors.get(text));
+        }
+
+        if (!posAnchors.isEmpty()) {
+            collectPOSLabels(tokens, from, to, scratch.posMask);
+            for (Map.Entry<Set<Byte>, SharedList<Entry>> anchor : posAnchors.entrySet()) {
+                if (containsAny(scratch.posMask, anchor.getKey())) {
+                    hit(hits, anchor.getValue());
+                }
+            }
+        }
+
+        List<Entry> selected = scratch.selected;
+        selected.addAll(unanchored);
+        for (Map.Entry<Entry, Integer> hit : hits.entrySet()) {
+            if (hit.getValue() == hit.getKey().getRequired()) {
+                selected.add(hit.getKey());
+            }
+        }
+
+        SynonymProfile synonyms = null;
+        List<Entry> candidates = new ArrayList<Entry>(selected.size());
+        for (Entry entry : selected) {
+            if (!entry.synAnchors.isEmpty()) {
+                if (synonyms == null) {
+                    synonyms = new SynonymProfile(tokens, from, to);
+                }
+                if (!synonyms.containsAll(entry.synAnchors)) {
+                    continue;
+                }
+            }
+            candidates.add(entry);
+        }
+        Collections.sort(candidates);
+
+        List<PatternMatcher> result = new ArrayList<PatternMatcher>(candidates.size());
+        for (Entry entry : candidates) {
+            result.add(entry.matcher);
+        }
+        return result;
+    }
+
+    private static void collectPOSLabels(TextAnnotation tokens, int from, int to, long[] mask) {
+        Annotation annotation = tokens.getAnnotation(TextAnnotationConstants.getLevel(TextAnnotationConstants.POS));
+        if (annotation != null) {
+            for (AnnotationToken token : annotation.getTokens()) {
+                if (token.getTextTokenIndex() >= from && token.getTextTokenIndex() < to) {
+                    TextAnnotationConstants.addPOSLabel(mask, 0, token.getAnnotationLabel());
+                }
+            }
+        }
+    }
+
+    private static boolean containsAny(long[] mask, Set<Byte> labels) {
+        for (Byte label : labels) {
+            if (label != null && TextAnnotationConstants.containsPOSLabel(mask, label)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<TokenMatcher> collectAnchors(TokenMatcher start) {
+        List<TokenMatcher> result = new LinkedList<TokenMatcher>();
+        Set<TokenMatcher> visited = Collections.newSetFromMap(new IdentityHashMap<TokenMatcher, Boolean>());
+        LinkedList<TokenMatcher> queue = new LinkedList<TokenMatcher>();
+        queue.add(start);
+        visited.add(start);
+        while (!queue.isEmpty()) {
+            TokenMatcher current = queue.removeFirst();
+            if (current.getPriority() == TokenMatcher.PRIORITY_MANDATORY) {
+                result.add(current);
+            }
+            for (TokenMatcher child : current.getMatcherList()) {
+                if (visited.add(child)) {
+                    queue.add(child);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void hit(Map<Entry, Integer> hits, SharedList<Entry> postings) {
+        if (postings != null) {
+            for (Entry entry : postings) {
+                Integer count = hits.get(entry);
+                hits.put(entry, count == null ? 1 : count + 1);
+            }
+        }
+    }
+
+    /**
+     * Hash map split in buckets that copies share, a copy only duplicates the buckets it changes. A
+     * <code>null</code> value removes the key.
+     */
+    private static final class Buckets<K, V> {
+        private static final int BITS = 10;
+        private static final int COUNT = 1 << BITS;
+
+        private final Map<K, V>[] buckets;
+        private final boolean[] owned = new boolean[COUNT];
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Buckets() {
+            buckets = new Map[COUNT];
+        }
+
+        private Buckets(Buckets<K, V> source) {
+            buckets = source.buckets.clone();
+        }
+
+        private V get(K key) {
+            Map<K, V> bucket = buckets[indexOf(key)];
+            return bucket == null ? null : bucket.get(key);
+        }
+
+        private void put(K key, V value) {
+            int index = indexOf(key);
+            Map<K, V> bucket = buckets[index];
+            if (!owned[index]) {
+                bucket = bucket == null ? new HashMap<K, V>() : new HashMap<K, V>(bucket);
+                buckets[index] = bucket;
+                owned[index] = true;
+            }
+            if (value == null) {
+                bucket.remove(key);
+            } else {
+                bucket.put(key, value);
+            }
+        }
+
+        private static int indexOf(Object key) {
+            // the high bits of the mixed hash, the maps of the buckets index their keys by the low ones
+            return (key.hashCode() * 0x9E3779B9) >>> (32 - BITS);
+        }
+    }
+
+    static final class Entry implements Comparable<Entry> {
+        private final PatternMatcher matcher;
+        private final int sequence;
+        private final Set<String> literals = new HashSet<String>();
+        private final Set<Set<Byte>> posLabels = new HashSet<Set<Byte>>();
+        private final List<SynMatcher> synAnchors = new LinkedList<SynMatcher>();
+
+        private Entry(PatternMatcher matcher, int sequence) {
+            this.matcher = matcher;
+            this.sequence = sequence;
+        }
+
+        private int getRequired() {
+            return literals.size() + posLabels.size();
+        }
+
+        public int compareTo(Entry o) {
+            return sequence < o.sequence ? -1 : (sequence == o.sequence ? 0 : 1);
+        }
+    }
+
+    /**
+     * Synsets of the sentence tokens, looked up once per language and only when a candidate needs them.
+     */
+    private static final class SynonymProfile {
+        private final TextAnnotation tokens;
+        private final int from;
+        private final int to;
+        private final Map<Locale, Set<String>> synsets = new HashMap<Locale, Set<String>>();
+
+        private SynonymProfile(TextAnnotation tokens, int from, int to) {
+            this.tokens = tokens;
+            this.from = from;
+            this.to = to;
+        }
+
+        private boolean containsAll(List<SynMatcher> anchors) {
+            for (SynMatcher anchor : anchors) {
+                Set<String> present = synsets.get(anchor.getLanguage());
+                if (present == null) {
+                    present = new HashSet<String>();
+                    for (int i = from; i < to; i++) {
+                        present.addAll(anchor.getTokenSynsets(tokens, i));
+                    }
+                    synsets.put(anchor.getLanguage(), present);
+                }
+                if (Collections.disjoint(present, anchor.getSynsets())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
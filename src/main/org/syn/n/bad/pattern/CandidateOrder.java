@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The candidates of a sentence sorted by the highest count they can reach, so that a strong match is found early
+ * and the weaker patterns can be skipped. The rank of each pattern in the original list is kept to break ties the
+ * same way as the unsorted walk.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+final class CandidateOrder {
+    private final PatternMatcher[] matchers;
+    private final PatternBounds[] bounds;
+    private final int[] ranks;
+
+    CandidateOrder(List<PatternMatcher> candidates) {
+        final PatternBounds[] all = new PatternBounds[candidates.size()];
+        Integer[] order = new Integer[candidates.size()];
+        for (int i = 0; i < order.length; i++) {
+            all[i] = candidates.get(i).getBounds();
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer o1, Integer o2) {
+                int count1 = all[o1].getMaxCount();
+                int count2 = all[o2].getMaxCount();
+                if (count1 != count2) {
+                    return count1 > count2 ? -1 : 1;
+                }
+                return o1 - o2;
+            }
+        });
+
+        matchers = new PatternMatcher[order.length];
+        bounds = new PatternBounds[order.length];
+        ranks = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            matchers[i] = candidates.get(order[i]);
+            bounds[i] = all[order[i]];
+            ranks[i] = order[i];
+        }
+    }
+
+    int size() {
+        return matchers.length;
+    }
+
+    PatternMatcher getMatcher(int index) {
+        return matchers[index];
+    }
+
+    PatternBounds getBounds(int index) {
+        return bounds[index];
+    }
+
+    int getRank(int index) {
+        return ranks[index];
+    }
+}
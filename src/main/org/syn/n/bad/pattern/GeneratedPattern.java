@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Base class of the matchers generated by {@link PatternCompiler}. It is public only because the generated classes
+ * are defined by their own class loader and should not be extended otherwise.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public abstract class GeneratedPattern {
+    /**
+     * The token matchers that are not inlined in the generated code, such as the POS and synonym matchers.
+     */
+    protected final TokenMatcher[] predicates;
+
+    protected GeneratedPattern(TokenMatcher[] predicates) {
+        this.predicates = predicates;
+    }
+
+    /**
+     * Same walk as {@link PatternMatcher#match(TextAnnotation, int, int)}.
+     */
+    public abstract PatternMatcher.PatternMatch match(TextAnnotation tokens, int from, int to);
+
+    protected static Map<String, String> capture(Map<String, String> matchedVars, String label, String value) {
+        if (matchedVars == null) {
+            matchedVars = new HashMap<String, String>();
+        }
+
+        String previous = matchedVars.get(label);
+        matchedVars.put(label, previous == null ? value : previous + " " + value);
+        return matchedVars;
+    }
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TokenLattice;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Walks a pattern over all the paths of a {@link TokenLattice} at once. The walk of a pattern only depends on the
+ * node it reached, so the paths that meet on the same node at the same slot are merged, keeping the one with the
+ * highest count and then the highest score. A slot thus costs at most one step per node of the pattern, whatever
+ * the number of paths.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class LatticeWalk {
+    private LatticeWalk() {
+    }
+
+    static Path walk(PatternMatcher matcher, TokenLattice lattice, int from, int to) {
+        TextAnnotation tokens = lattice.getTokens();
+        Map<WalkStep, Path> current = new LinkedHashMap<WalkStep, Path>();
+        current.put(WalkStep.of(matcher.getStart()), new Path(null, -1, 0, 0, 0));
+
+        Path best = null;
+        int slot = from;
+        while (!current.isEmpty() && slot < to) {
+            Map<WalkStep, Path> next = new LinkedHashMap<WalkStep, Path>();
+            for (Map.Entry<WalkStep, Path> entry : current.entrySet()) {
+                Path path = entry.getValue();
+                boolean stopped = false;
+                List<WalkStep> steps = entry.getKey().getNext();
+
+                for (int index = lattice.getSlotStart(slot); index < lattice.getSlotEnd(slot); index++) {
+                    WalkStep target = null;
+                    for (WalkStep child : steps) {
+                        if (child.getNode().match(tokens, index)) {
+                            target = child;
+                            break;
+                        }
+                    }
+
+                    if (target == null) {
+                        stopped = true;
+                    } else {
+                        TokenMatcher node = target.getNode();
+                        int count = path.count + (node.getPriority() != TokenMatcher.PRIORITY_SKIP ? 1 : 0);
+                        Path step = new Path(path, index, count, path.window + 1,
+                                             path.score + lattice.getScore(index));
+                        Path other = next.get(target);
+                        if (other == null || step.count > other.count ||
+                            (step.count == other.count && step.score > other.score)) {
+                            next.put(target, step);
+                        }
+                    }
+                }
+
+                if (stopped) {
+                    best = offer(best, entry.getKey().getNode(), path);
+                }
+            }
+            current = next;
+            slot++;
+        }
+
+        for (Map.Entry<WalkStep, Path> entry : current.entrySet()) {
+            best = offer(best, entry.getKey().getNode(), entry.getValue());
+        }
+        return best;
+    }
+
+    private static Path offer(Path best, TokenMatcher node, Path path) {
+        if (path.count > 0 && node.isFinal() && (best == null || path.isBetter(best))) {
+            return path;
+        }
+        return best;
+    }
+
+    static final class Path {
+        private final Path previous;
+        private final int index;
+        private final int count;
+        private final int window;
+        private final double score;
+
+        private Path(Path previous, int index, int count, int window, double score) {
+            this.previous = previous;
+            this.index = index;
+            this.count = count;
+            this.window = window;
+            this.score = score;
+        }
+
+        int getMatchCount() {
+            return count;
+        }
+
+        int getMatchWindow() {
+            return window;
+        }
+
+        double getScore() {
+            return score;
+        }
+
+        /**
+         * The flat indexes of the chosen alternatives, one per slot.
+         */
+        int[] getIndexes() {
+            int[] result = new int[window];
+            Path path = this;
+            for (int i = window - 1; i >= 0; i--) {
+                result[i] = path.index;
+                path = path.previous;
+            }
+            return result;
+        }
+
+        boolean isBetter(Path other) {
+            if (count != other.count) {
+                return count > other.count;
+            } else if (window != other.window) {
+                return window < other.window;
+            } else {
+                return score > other.score;
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.EncodedTokens;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Simulates every branch of a pattern in lockstep, instead of following the first successor that accepts a token.
+ * The branches that reach the same node are merged, keeping the highest count (or the earliest branch, on a tie),
+ * since the rest of their walk is the same. A token thus costs at most one step per edge of the pattern and the
+ * best match is found without backtracking.
+ * <p/>
+ * Every branch carries its captures as a list shared with the branch it was forked from; the variables are only
+ * built for the winner.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class LockstepWalk {
+    private LockstepWalk() {
+    }
+
+    /**
+     * Returns the highest count reached on a final node, with the smallest window on a tie.
+     */
+    static PatternMatcher.PatternMatch match(TokenMatcher start, EncodedTokens tokens, int from, int to) {
+        Map<WalkStep, Branch> current = new LinkedHashMap<WalkStep, Branch>();
+        current.put(WalkStep.of(start), new Branch(0, null));
+
+        Branch best = null;
+        int bestWindow = 0;
+        int window = 0;
+        while (!current.isEmpty() && from + window < to) {
+            int index = from + window;
+            Map<WalkStep, Branch> next = new LinkedHashMap<WalkStep, Branch>();
+            for (Map.Entry<WalkStep, Branch> entry : current.entrySet()) {
+                Branch branch = entry.getValue();
+                for (WalkStep step : entry.getKey().getNext()) {
+                    TokenMatcher child = step.getNode();
+                    Branch other = next.get(step);
+                    int count = branch.count + (child.getPriority() != TokenMatcher.PRIORITY_SKIP ? 1 : 0);
+                    if ((other == null || count > other.count) && child.match(tokens, index)) {
+                        Capture captures = child.hasVariableLabel() ?
+                                           new Capture(child.getVariableLabel(), index, branch.captures) :
+                                           branch.captures;
+                        next.put(step, new Branch(count, captures));
+                    }
+                }
+            }
+
+            current = next;
+            window++;
+            for (Map.Entry<WalkStep, Branch> entry : current.entrySet()) {
+                Branch branch = entry.getValue();
+                boolean better = best == null || branch.count > best.count;
+                if (entry.getKey().getNode().isFinal() && branch.count > 0 && better) {
+                    best = branch;
+                    bestWindow = window;
+                }
+            }
+        }
+
+        if (best == null) {
+            return new PatternMatcher.PatternMatch(0, 0, Collections.<String, String>emptyMap(), window);
+        }
+        return new PatternMatcher.PatternMatch(best.count, bestWindow, best.getMatchedVars(tokens.getTokens()),
+                                               window);
+    }
+
+    private static final class Branch {
+        private final int count;
+        private final Capture captures;
+
+        private Branch(int count, Capture captures) {
+            this.count = count;
+            this.captures = captures;
+        }
+
+        private Map<String, String> getMatchedVars(TextAnnotation tokens) {
+            Map<String, String> result = new HashMap<String, String>();
+            for (Capture capture = captures; capture != null; capture = capture.previous) {
+                String text = tokens.getToken(capture.index).getText();
+                String value = result.get(capture.label);
+                // the captures are linked from the last one
+                result.put(capture.label, value == null ? text : text + " " + value);
+            }
+            return result;
+        }
+    }
+
+    private static final class Capture {
+        private final String label;
+        private final int index;
+        private final Capture previous;
+
+        private Capture(String label, int index, Capture previous) {
+            this.label = label;
+            this.index = index;
+            this.previous = previous;
+        }
+    }
+}
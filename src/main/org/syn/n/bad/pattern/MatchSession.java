@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.Annotation;
+import org.syn.n.bad.annotation.AnnotationToken;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextAnnotationConstants;
+import org.syn.n.bad.annotation.TextToken;
+
+import java.util.*;
+
+/**
+ * Incremental matching over a stream of tokens, such as the words of a speech recognizer. Each start position
+ * keeps the combined automaton state of all the patterns still walking from it, so a new token only advances the
+ * active states instead of matching the whole utterance again. A session is bound to the patterns of its
+ * {@link Matcher} at the time it was opened and must be used by one thread at a time.
+ * <p/>
+ * The states reached after every token are kept as checkpoints, so partial hypotheses that replace the last words
+ * can {@link #retract(int)} them and push the revised ones, re-evaluating only the revised suffix.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class MatchSession {
+    private static final int POS_LEVEL = TextAnnotationConstants.getLevel(TextAnnotationConstants.POS);
+
+    private final MatcherSnapshot snapshot;
+    private final MatcherAutomaton automaton;
+    private final List<List<Group>> checkpoints = new ArrayList<List<Group>>();
+    private TextAnnotation tokens;
+
+    MatchSession(MatcherSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.automaton = snapshot.getAutomaton();
+        reset();
+    }
+
+    public void reset() {
+        tokens = new TextAnnotation();
+        tokens.addAnnotation(POS_LEVEL, new Annotation());
+        checkpoints.clear();
+    }
+
+    public TextAnnotation getTokens() {
+        return tokens;
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    public int getActiveStates() {
+        int result = 0;
+        for (Group group : getGroups()) {
+            result += group.state.getThreadCount();
+        }
+        return result;
+    }
+
+    /**
+     * Appends a token, with its optional POS annotations, and returns the patterns that reach a final state with
+     * it. A pattern followed by optional or repeated tokens is reported again each time it reaches a final state
+     * with a longer span.
+     */
+    public List<MatchSpan> push(TextToken token, AnnotationToken... posTokens) {
+        int index = tokens.addTextToken(token);
+        for (AnnotationToken posToken : posTokens) {
+            posToken.setTextTokenIndex(index);
+            tokens.addAnnotationToken(POS_LEVEL, posToken);
+        }
+
+        List<Group> groups = new ArrayList<Group>(getGroups());
+        groups.add(new Group(index, automaton.getStartState()));
+
+        List<Group> next = new ArrayList<Group>(groups.size());
+        List<MatchSpan> result = new LinkedList<MatchSpan>();
+        for (Group group : groups) {
+            MatcherAutomaton.State state = group.state.step(tokens, index).getNext();
+            if (state.getThreadCount() == 0) {
+                continue;
+            }
+
+            next.add(new Group(group.start, state));
+            for (int i = 0; i < state.getThreadCount(); i++) {
+                if (automaton.isFinal(state, i)) {
+                    result.add(report(automaton.getPatternIndex(state, i), group.start, index + 1));
+                }
+            }
+        }
+        checkpoints.add(next);
+        return result;
+    }
+
+    /**
+     * Removes the last <code>count</code> tokens, with their annotations, and restores the states reached before
+     * them. Matches reported for the removed tokens are no longer valid.
+     */
+    public void retract(int count) {
+        int size = tokens.size();
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("Cannot retract " + count + " tokens out of " + size);
+        }
+
+        int newSize = size - count;
+        tokens.getTokens().subList(newSize, size).clear();
+        checkpoints.subList(newSize, size).clear();
+
+        for (Annotation annotation : tokens.getAnnotations().values()) {
+            for (Iterator<AnnotationToken> iterator = annotation.getTokens().iterator(); iterator.hasNext(); ) {
+                if (iterator.next().getTextTokenIndex() >= newSize) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private List<Group> getGroups() {
+        if (checkpoints.isEmpty()) {
+            return Collections.emptyList();
+        } else {
+            return checkpoints.get(checkpoints.size() - 1);
+        }
+    }
+
+    private MatchSpan report(int patternIndex, int start, int end) {
+        // the walk is deterministic, so walking the pattern again over the span yields the same path
+        PatternMatcher matcher = automaton.getPattern(patternIndex);
+        PatternMatcher.PatternMatch pm = matcher.match(tokens, start, end);
+        return new MatchSpan(matcher.getId(), start, end, pm.getMatchCount(), pm.getMatchedVars(),
+                             snapshot.setupStyles(matcher.getStyleLabels()));
+    }
+
+    private static final class Group {
+        private final int start;
+        private final MatcherAutomaton.State state;
+
+        private Group(int start, MatcherAutomaton.State state) {
+            this.start = start;
+            this.state = state;
+        }
+    }
+}
@@ -37,74 +37,445 @@
 
 package org.syn.n.bad.pattern;
 
+import org.syn.n.bad.annotation.EncodedTokens;
 import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TokenLattice;
+import org.syn.n.bad.metrics.MBeans;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 1/1/13
  */
 public class Matcher {
-    private final List<PatternMatcher> matchers = new LinkedList<PatternMatcher>();
-    private final Map<String, String> styleLabels = new HashMap<String, String>();
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 32;
 
-    public void addMatcher(PatternMatcher matcher) {
-        synchronized (matchers) {
-            if (matcher.isValid()) {
-                matchers.add(matcher);
+    // one scratch per thread matching the batches, reused across batches and calls
+    private static final ThreadLocal<MatchScratch> SCRATCH = new ThreadLocal<MatchScratch>() {
+        protected MatchScratch initialValue() {
+            return new MatchScratch();
+        }
+    };
 
-                for (String label : matcher.getStyleLabels().keySet()) {
-                    if (!styleLabels.containsKey(label)) {
-                        styleLabels.put(label, "*");
-                    }
-                }
+    private final Object writeLock = new Object();
+    private volatile MatcherSnapshot snapshot = new MatcherSnapshot();
+    private final TokenMatcherPool pool = new TokenMatcherPool();
+    private volatile boolean compiled = false;
+    private volatile boolean exhaustive = false;
+    private volatile boolean generated = false;
+    private volatile ForkJoinPool forkJoinPool = null;
+    private volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private volatile Executor batchExecutor = null;
+    private volatile int batchSize = DEFAULT_BATCH_SIZE;
+    private volatile Executor asyncExecutor = null;
+    private volatile PatternProfiler profiler = null;
+    private volatile MatcherMetrics metrics = null;
+    private final List<ObjectName> objectNames = new ArrayList<ObjectName>();
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    public boolean isExhaustive() {
+        return exhaustive;
+    }
+
+    /**
+     * Explores every branch of the patterns, see {@link PatternMatcher#matchExhaustive(TextAnnotation, int, int)},
+     * instead of the first one that accepts a token. This mode takes precedence over the compiled mode and does
+     * not use the fork-join pool.
+     */
+    public void setExhaustive(boolean exhaustive) {
+        this.exhaustive = exhaustive;
+    }
+
+    public boolean isGenerated() {
+        return generated;
+    }
+
+    /**
+     * Experimental: walks the patterns with classes generated and compiled in-process, one per pattern, instead of
+     * the interpreter. The classes are compiled on a background thread whenever the patterns change; the matches do
+     * not wait for them and use the interpreter for the patterns not compiled yet, or that cannot be compiled, for
+     * instance when the JVM has no system Java compiler. The compiled and exhaustive modes take precedence over this
+     * one and the fork-join pool is not used.
+     * <p/>
+     * Each class is only fast once the JIT compiled it, and <code>GeneratedMatcherBenchmark</code> shows no gain over
+     * the interpreter for 100 patterns and a loss for 1000, so this mode is not recommended yet.
+     */
+    public void setGenerated(boolean generated) {
+        synchronized (writeLock) {
+            this.generated = generated;
+            if (generated) {
+                snapshot.startGenerating();
+            }
+        }
+    }
+
+    /**
+     * Waits for the classes of the patterns currently registered, see {@link #setGenerated(boolean)}.
+     */
+    void awaitGenerated() {
+        snapshot.generate();
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return forkJoinPool;
+    }
+
+    /**
+     * Evaluates the patterns in parallel on the given pool, in chunks of at most
+     * {@link #getParallelThreshold()} patterns. A <code>null</code> pool restores the sequential scan. The
+     * compiled mode already walks all patterns in one pass and does not use the pool.
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public Executor getBatchExecutor() {
+        return batchExecutor;
+    }
+
+    /**
+     * Runs {@link #matchAll(Iterable)} on the given executor, in batches of {@link #getBatchSize()} consecutive
+     * sentences, the calling thread matching batches too. A <code>null</code> executor matches the sentences on the
+     * calling thread.
+     */
+    public void setBatchExecutor(Executor batchExecutor) {
+        this.batchExecutor = batchExecutor;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Executor getAsyncExecutor() {
+        return asyncExecutor == null ? AsyncExecutors.getDefault() : asyncExecutor;
+    }
+
+    /**
+     * Sets the executor of {@link #matchAsync(TextAnnotation)}. By default, the matching runs on virtual threads
+     * when the JVM supports them and on a bounded pool of daemon threads otherwise. Once the queue of that pool is
+     * full, the calling thread runs the match itself, so the callers slow down rather than queue without limit.
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public PatternProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Records the runtime counters of each pattern in the given profiler, see {@link PatternProfiler}. A
+     * <code>null</code> profiler, the default, turns the profiling off.
+     */
+    public void setProfiler(PatternProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Registers the runtime metrics of this matcher in the platform MBean server, as
+     * <code>org.syn.n.bad:type=Matcher,name=&lt;name&gt;</code>. The calls matching a single window and those
+     * matching a whole sentence are measured apart, by the beans of the same name with
+     * <code>operation=window</code> and <code>operation=sentence</code>. The matches are only timed while the metrics
+     * are registered.
+     */
+    public MatcherMXBean registerMBean(String name) throws JMException {
+        synchronized (writeLock) {
+            unregisterMBean();
+            MatcherMetrics result = new MatcherMetrics(this);
+            objectNames.add(MBeans.register(result, MBeans.name("Matcher", name)));
+            objectNames.add(MBeans.register(result.getWindows(), MBeans.name("Matcher", name, "window")));
+            objectNames.add(MBeans.register(result.getSentences(), MBeans.name("Matcher", name, "sentence")));
+            metrics = result;
+            return result;
+        }
+    }
+
+    public void unregisterMBean() throws JMException {
+        synchronized (writeLock) {
+            metrics = null;
+            for (ObjectName objectName : objectNames) {
+                MBeans.unregister(objectName);
+            }
+            objectNames.clear();
+        }
+    }
+
+    public void addMatcher(PatternMatcher matcher) {
+        if (matcher.isValid()) {
+            synchronized (writeLock) {
+                pool.add(matcher);
+                setSnapshot(snapshot.add(matcher));
             }
         }
     }
 
     public void removeMatcher(PatternMatcher matcher) {
-        synchronized (matchers) {
-            matchers.remove(matcher);
+        synchronized (writeLock) {
+            MatcherSnapshot previous = snapshot;
+            MatcherSnapshot next = previous.remove(matcher);
+            if (next != previous) {
+                setSnapshot(next);
+                pool.remove(matcher);
+            }
         }
     }
 
-    public MatchResult match(TextAnnotation textTokens, int from, int to) {
-        MatchResult result = new MatchResult(null, -1, null, null);
-        synchronized (matchers) {
-            int matchCount = 0;
-
-            for (PatternMatcher matcher : matchers) {
-                PatternMatcher.PatternMatch pm = matcher.match(textTokens, from, to);
-                if ((pm.getMatchCount() > matchCount) || (pm.getMatchCount() == matchCount && pm.getMatchWindow() <
-                                                                                              result.getMatchedTokens
-                                                                                                             ())) {
-                    result = new MatchResult(matcher.getId(), pm.getMatchWindow(), matcher.getMatchedVars(),
-                                             setupStyles(matcher.getStyleLabels()));
-                    matchCount = pm.getMatchCount();
+    /**
+     * Removes every pattern registered with the given id.
+     */
+    public void removeMatcher(String id) {
+        update().remove(id).publish();
+    }
+
+    /**
+     * The last pattern registered with the given id, or <code>null</code>.
+     */
+    public PatternMatcher getMatcher(String id) {
+        return snapshot.getMatcher(id);
+    }
+
+    /**
+     * Starts a batch of changes, applied together by {@link MatcherUpdate#publish()}.
+     */
+    public MatcherUpdate update() {
+        return new MatcherUpdate(this);
+    }
+
+    MatcherVersion publish(Map<String, PatternMatcher> changes, boolean clear) {
+        synchronized (writeLock) {
+            for (PatternMatcher matcher : changes.values()) {
+                if (matcher != null) {
+                    pool.add(matcher);
                 }
             }
+
+            List<PatternMatcher> dropped = new ArrayList<PatternMatcher>();
+            MatcherSnapshot next = snapshot.update(changes, clear, dropped);
+            setSnapshot(next);
+            for (PatternMatcher matcher : dropped) {
+                pool.remove(matcher);
+            }
+            return new MatcherVersion(this, next);
         }
-        return result;
     }
 
-    private Map<String, String> setupStyles(Map<String, String> mathcherStyles) {
-        Map<String, String> result = new HashMap<String, String>(styleLabels);
-        result.putAll(mathcherStyles);
+    private void setSnapshot(MatcherSnapshot next) {
+        snapshot = next;
+        if (generated) {
+            next.startGenerating();
+        }
+    }
 
-        return result;
+    /**
+     * Pins the patterns currently registered: the matches of the returned version ignore any later change.
+     */
+    public MatcherVersion getVersion() {
+        return new MatcherVersion(this, snapshot);
+    }
+
+    TokenMatcherPool getPool() {
+        return pool;
+    }
+
+    List<PatternMatcher> getMatchers() {
+        return snapshot.getMatchers();
+    }
+
+    private MatchMode getMode() {
+        if (exhaustive) {
+            return MatchMode.EXHAUSTIVE;
+        } else if (compiled) {
+            return MatchMode.COMPILED;
+        } else if (generated) {
+            return MatchMode.GENERATED;
+        } else {
+            return MatchMode.SCAN;
+        }
+    }
+
+    public MatchResult match(TextAnnotation textTokens, int from, int to) {
+        return match(snapshot, textTokens, from, to);
+    }
+
+    MatchResult match(MatcherSnapshot current, TextAnnotation textTokens, int from, int to) {
+        MatcherMetrics recorder = metrics;
+        if (recorder == null) {
+            return matchWindow(current, textTokens, from, to);
+        }
+
+        long start = System.nanoTime();
+        try {
+            MatchResult result = matchWindow(current, textTokens, from, to);
+            recorder.getWindows().record(System.nanoTime() - start, result.getTemplateID() != null);
+            return result;
+        } catch (RuntimeException e) {
+            recorder.getWindows().recordError();
+            throw e;
+        }
+    }
+
+    private MatchResult matchWindow(MatcherSnapshot current, TextAnnotation textTokens, int from, int to) {
+        MatchMode mode = getMode();
+        List<PatternMatcher> candidates = mode == MatchMode.COMPILED ? null :
+                                          current.candidates(textTokens, from, to);
+        return match(current, mode, new EncodedTokens(textTokens), from, to, candidates,
+                     candidates == null ? null : new CandidateOrder(candidates));
+    }
+
+    private MatchResult match(MatcherSnapshot current, MatchMode mode, EncodedTokens textTokens, int from, int to,
+                              List<PatternMatcher> candidates, CandidateOrder order) {
+        if (mode == MatchMode.COMPILED) {
+            return current.matchCompiled(textTokens, from, to, profiler);
+        }
+
+        ForkJoinPool pool = forkJoinPool;
+        int threshold = parallelThreshold;
+        if (mode == MatchMode.SCAN && pool != null && candidates.size() > threshold) {
+            return current.match(textTokens, from, to, candidates, pool, threshold, profiler);
+        }
+        return current.match(textTokens, from, to, order, mode, profiler);
     }
 
     public TemplateMatchResult match(TextAnnotation textTokens) {
+        return match(snapshot, getMode(), textTokens, new MatchScratch());
+    }
+
+    TemplateMatchResult match(MatcherSnapshot current, TextAnnotation textTokens) {
+        return match(current, getMode(), textTokens, new MatchScratch());
+    }
+
+    private TemplateMatchResult match(MatcherSnapshot current, MatchMode mode, TextAnnotation textTokens,
+                                      MatchScratch scratch) {
+        MatcherMetrics recorder = metrics;
+        if (recorder == null) {
+            return matchSentence(current, mode, textTokens, scratch);
+        }
+
+        long start = System.nanoTime();
+        try {
+            TemplateMatchResult result = matchSentence(current, mode, textTokens, scratch);
+            recorder.getSentences().record(System.nanoTime() - start, !result.getTemplateIDs().isEmpty());
+            return result;
+        } catch (RuntimeException e) {
+            recorder.getSentences().recordError();
+            throw e;
+        }
+    }
+
+    private TemplateMatchResult matchSentence(MatcherSnapshot current, MatchMode mode, TextAnnotation textTokens,
+                                              MatchScratch scratch) {
+        // the candidates of the whole sentence are valid for any window inside it
+        List<PatternMatcher> candidates = mode == MatchMode.COMPILED ? null :
+                                          current.candidates(textTokens, 0, textTokens.size(), scratch);
+
+        // the sentence is encoded once for all the patterns and windows
+        EncodedTokens encoded = new EncodedTokens(textTokens);
+        CandidateOrder order = candidates == null ? null : new CandidateOrder(candidates);
+
         TemplateMatchResult result = new TemplateMatchResult();
         int i = -1;
         int window = 1;
         while (window > 0 && i < textTokens.size()) {
             i += window;
-            MatchResult res = match(textTokens, i, textTokens.size());
+            MatchResult res = match(current, mode, encoded, i, textTokens.size(), candidates, order);
+            if (res.getTemplateID() != null) {
+                window = res.getMatchedTokens();
+                result.addTemplateId(res.getTemplateID());
+                result.updateVariables(res.getMatchedVars());
+                result.updateStyles(res.getStyleLabels());
+            } else {
+                window = 1;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Every match of every pattern in the sentence, overlapping or not.
+     */
+    public List<MatchSpan> matchSpans(TextAnnotation textTokens) {
+        return matchSpans(textTokens, OverlapPolicy.KEEP_OVERLAPS);
+    }
+
+    /**
+     * Walks every pattern from every position of the sentence in a single left to right pass of the pattern automaton,
+     * then keeps the matches chosen by the policy. The spans are returned by start position. In the exhaustive mode,
+     * which the automaton does not follow, the candidates are walked from each position instead.
+     */
+    public List<MatchSpan> matchSpans(TextAnnotation textTokens, OverlapPolicy policy) {
+        return matchSpans(snapshot, textTokens, policy);
+    }
+
+    List<MatchSpan> matchSpans(MatcherSnapshot current, TextAnnotation textTokens, OverlapPolicy policy) {
+        MatchMode mode = getMode();
+        List<MatchSpan> spans;
+        if (mode == MatchMode.EXHAUSTIVE) {
+            spans = current.matchSpans(new EncodedTokens(textTokens),
+                                       current.candidates(textTokens, 0, textTokens.size()), mode, profiler);
+        } else {
+            spans = current.matchSpans(new EncodedTokens(textTokens), profiler);
+        }
+        return SpanResolver.resolve(spans, policy);
+    }
+
+    /**
+     * Finds the best match starting at slot <code>from</code> over all the paths of the lattice: the highest match
+     * count, then the smallest window and then the highest path score. The compiled and parallel modes do not
+     * apply to lattices.
+     */
+    public LatticeMatchResult match(TokenLattice lattice, int from, int to) {
+        MatcherSnapshot current = snapshot;
+        TextAnnotation tokens = lattice.getTokens();
+        return current.match(lattice, from, to, current.candidates(tokens, 0, tokens.size()));
+    }
+
+    public TemplateMatchResult match(TokenLattice lattice) {
+        MatcherSnapshot current = snapshot;
+        TextAnnotation tokens = lattice.getTokens();
+        // an anchor found in any alternative keeps the pattern, for every window of the lattice
+        List<PatternMatcher> candidates = current.candidates(tokens, 0, tokens.size());
+
+        TemplateMatchResult result = new TemplateMatchResult();
+        int i = -1;
+        int window = 1;
+        while (window > 0 && i < lattice.size()) {
+            i += window;
+            MatchResult res = current.match(lattice, i, lattice.size(), candidates);
             if (res.getTemplateID() != null) {
                 window = res.getMatchedTokens();
                 result.addTemplateId(res.getTemplateID());
@@ -117,4 +488,103 @@ public class Matcher {
 
         return result;
     }
+
+    /**
+     * Opens a streaming session over the patterns currently registered.
+     */
+    public MatchSession openSession() {
+        return new MatchSession(snapshot);
+    }
+
+    /**
+     * Matches the sentence away from the calling thread, so that slow dictionary lookups never block it, unless the
+     * executor is saturated and hands the match back to the caller, see {@link #setAsyncExecutor(Executor)}.
+     */
+    public CompletableFuture<TemplateMatchResult> matchAsync(final TextAnnotation textTokens) {
+        final MatcherSnapshot current = snapshot;
+        final MatchMode mode = getMode();
+        return CompletableFuture.supplyAsync(new Supplier<TemplateMatchResult>() {
+            public TemplateMatchResult get() {
+                return match(current, mode, textTokens, new MatchScratch());
+            }
+        }, getAsyncExecutor());
+    }
+
+    /**
+     * Matches every sentence against the same set of patterns and returns the results in the order of the
+     * sentences.
+     */
+    public List<TemplateMatchResult> matchAll(Iterable<? extends TextAnnotation> sentences) {
+        final List<TextAnnotation> items = new ArrayList<TextAnnotation>();
+        for (TextAnnotation sentence : sentences) {
+            items.add(sentence);
+        }
+
+        final MatcherSnapshot current = snapshot;
+        final MatchMode mode = getMode();
+        final TemplateMatchResult[] results = new TemplateMatchResult[items.size()];
+        Executor executor = batchExecutor;
+        int size = Math.max(1, batchSize);
+
+        if (executor == null || items.size() <= size) {
+            matchBatch(current, mode, items, 0, items.size(), results);
+            return Arrays.asList(results);
+        }
+
+        // the workers and the calling thread claim the batches from a shared counter: the caller only waits for the
+        // batches already running, so it never blocks on a queued task, even when it runs on the executor itself
+        final int batches = (items.size() + size - 1) / size;
+        final int batchLength = size;
+        final AtomicInteger next = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(batches);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Runnable worker = new Runnable() {
+            public void run() {
+                for (int batch = next.getAndIncrement(); batch < batches; batch = next.getAndIncrement()) {
+                    int from = batch * batchLength;
+                    try {
+                        matchBatch(current, mode, items, from, Math.min(items.size(), from + batchLength), results);
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+
+        for (int i = 1; i < batches; i++) {
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        worker.run();
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while matching a batch of sentences", e);
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new IllegalStateException(error);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void matchBatch(MatcherSnapshot current, MatchMode mode, List<TextAnnotation> items, int from, int to,
+                            TemplateMatchResult[] results) {
+        MatchScratch scratch = SCRATCH.get();
+        for (int i = from; i < to; i++) {
+            results[i] = match(current, mode, items.get(i), scratch);
+        }
+    }
 }
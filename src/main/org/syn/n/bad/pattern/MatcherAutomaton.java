@@ -0,0 +1,495 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+import org.syn.n.bad.pattern.token.ConsumerMatcher;
+import org.syn.n.bad.pattern.token.GapMatcher;
+import org.syn.n.bad.pattern.token.SimpleTokenMatcher;
+import org.syn.n.bad.pattern.token.SkipMatcher;
+import org.syn.n.bad.pattern.token.SynMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Merges the token matcher graphs of a pattern set into a single automaton. A combined state holds the current
+ * node of every pattern that is still walking, so all patterns advance together over the tokens. Token
+ * predicates shared by several patterns are evaluated once per position and the combined states, together with
+ * their transitions, are built lazily and cached up to a fixed number of states.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class MatcherAutomaton {
+    static final int DEFAULT_MAX_STATES = 4096;
+    private static final int MAX_TRANSITIONS = 256;
+    private static final int WILDCARD = -1;
+
+    private final PatternMatcher[] patterns;
+    private final int maxStates;
+
+    private final List<TokenMatcher> nodes = new ArrayList<TokenMatcher>();
+    private final List<Integer> nodePatterns = new ArrayList<Integer>();
+    private final List<Integer> nodePredicates = new ArrayList<Integer>();
+    private final List<int[]> nodeChildren = new ArrayList<int[]>();
+    private final List<Integer> nodeSkipped = new ArrayList<Integer>();
+    private final List<TokenMatcher> predicates = new ArrayList<TokenMatcher>();
+
+    private final ConcurrentMap<StateKey, State> states = new ConcurrentHashMap<StateKey, State>();
+    private final State start;
+
+    MatcherAutomaton(List<PatternMatcher> patterns) {
+        this(patterns, DEFAULT_MAX_STATES);
+    }
+
+    MatcherAutomaton(List<PatternMatcher> patterns, int maxStates) {
+        this.patterns = patterns.toArray(new PatternMatcher[patterns.size()]);
+        this.maxStates = maxStates;
+
+        Map<String, Integer> predicateIds = new HashMap<String, Integer>();
+        int[] startThreads = new int[this.patterns.length];
+        for (int i = 0; i < this.patterns.length; i++) {
+            startThreads[i] = register(i, this.patterns[i].getStart(), predicateIds);
+        }
+        start = intern(startThreads);
+    }
+
+    /**
+     * Numbers the nodes of a pattern. Patterns may share nodes (see {@link TokenMatcherPool}), each pattern gets its
+     * own numbers so that a thread always knows its pattern. A gap gets one number for each count of skipped tokens,
+     * the first one standing for the gap itself.
+     */
+    private int register(int pattern, TokenMatcher root, Map<String, Integer> predicateIds) {
+        Map<TokenMatcher, Integer> ids = new IdentityHashMap<TokenMatcher, Integer>();
+        LinkedList<TokenMatcher> queue = new LinkedList<TokenMatcher>();
+        int rootId = addNode(pattern, root, ids, predicateIds);
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            for (TokenMatcher child : queue.removeFirst().getMatcherList()) {
+                if (!ids.containsKey(child)) {
+                    addNode(pattern, child, ids, predicateIds);
+                    queue.add(child);
+                }
+            }
+        }
+
+        for (int id = rootId; id < nodes.size(); id++) {
+            TokenMatcher node = nodes.get(id);
+            int skipped = nodeSkipped.get(id);
+            GapMatcher gap = node instanceof GapMatcher ? (GapMatcher) node : null;
+
+            List<Integer> childIds = new ArrayList<Integer>();
+            if (gap == null || gap.canExit(skipped)) {
+                for (TokenMatcher child : node.getMatcherList()) {
+                    childIds.add(ids.get(child));
+                }
+            }
+            if (gap != null && gap.canSkip(skipped)) {
+                childIds.add(id + 1);
+            }
+
+            int[] children = new int[childIds.size()];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = childIds.get(i);
+            }
+            nodeChildren.add(children);
+        }
+        return rootId;
+    }
+
+    private int addNode(int pattern, TokenMatcher node, Map<TokenMatcher, Integer> ids,
+                        Map<String, Integer> predicateIds) {
+        int id = nodes.size();
+        ids.put(node, id);
+        if (node instanceof GapMatcher) {
+            for (int skipped = 1; skipped <= ((GapMatcher) node).getMax(); skipped++) {
+                nodes.add(node);
+                nodePatterns.add(pattern);
+                nodeSkipped.add(skipped);
+                nodePredicates.add(WILDCARD);
+            }
+            return id;
+        }
+
+        nodes.add(node);
+        nodePatterns.add(pattern);
+        nodeSkipped.add(0);
+        if (node instanceof SkipMatcher || node instanceof ConsumerMatcher) {
+            nodePredicates.add(WILDCARD);
+        } else {
+            String key = predicateKey(node);
+            Integer predicate = predicateIds.get(key);
+            if (predicate == null) {
+                predicate = predicates.size();
+                predicates.add(node);
+                predicateIds.put(key, predicate);
+            }
+            nodePredicates.add(predicate);
+        }
+        return id;
+    }
+
+    private static String predicateKey(TokenMatcher node) {
+        if (node instanceof SimpleTokenMatcher) {
+            return "=" + node.toString();
+        } else if (node instanceof SynMatcher) {
+            return node.getClass().getName() + ":" + ((SynMatcher) node).getLanguage() + ":" + node.toString();
+        } else {
+            return node.getClass().getName() + ":" + node.toString();
+        }
+    }
+
+    private State intern(int[] threads) {
+        StateKey key = new StateKey(threads);
+        State state = states.get(key);
+        if (state == null) {
+            state = new State(threads);
+            if (states.size() < maxStates) {
+                State previous = states.putIfAbsent(key, state);
+                if (previous != null) {
+                    state = previous;
+                }
+            }
+        }
+        return state;
+    }
+
+    int getStateCount() {
+        return states.size();
+    }
+
+    State getStartState() {
+        return start;
+    }
+
+    boolean isFinal(State state, int thread) {
+        return nodes.get(state.threads[thread]).isFinal();
+    }
+
+    int getPatternIndex(State state, int thread) {
+        return nodePatterns.get(state.threads[thread]);
+    }
+
+    PatternMatcher getPattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * Walks every pattern from <code>from</code> in a single pass over the tokens and returns the best pattern,
+     * using the same ordering as the sequential scan: the highest match count first, then the smallest window and
+     * finally the pattern added first.
+     */
+    Result match(TextAnnotation tokens, int from, int to) {
+        Result best = null;
+        State state = start;
+        int[] counts = new int[state.threads.length];
+        int window = 0;
+
+        while (state.threads.length > 0 && from + window < to) {
+            Transition transition = state.step(tokens, from + window);
+            for (int stopped : transition.stopped) {
+                best = offer(best, state.threads[stopped], counts[stopped], window);
+            }
+
+            int[] nextCounts = new int[transition.sources.length];
+            for (int i = 0; i < nextCounts.length; i++) {
+                nextCounts[i] = counts[transition.sources[i]] + (transition.counted[i] ? 1 : 0);
+            }
+
+            counts = nextCounts;
+            state = transition.next;
+            window++;
+        }
+
+        for (int i = 0; i < state.threads.length; i++) {
+            best = offer(best, state.threads[i], counts[i], window);
+        }
+        return best;
+    }
+
+    /**
+     * Walks every pattern from every position of the sentence in a single pass over the tokens: each position starts
+     * a new group of threads and all the groups advance together over the next token, as in {@link MatchSession}.
+     * Returns the threads that stopped on a final node, by start position and then by pattern. The automaton does
+     * not count the matched tokens, a hit may still have none.
+     */
+    List<Hit> matchAll(TextAnnotation tokens) {
+        int size = tokens.size();
+        List<Hit> result = new ArrayList<Hit>();
+        State[] groups = new State[size];
+        int[] starts = new int[size];
+        int active = 0;
+
+        for (int index = 0; index < size; index++) {
+            groups[active] = start;
+            starts[active] = index;
+            active++;
+
+            int kept = 0;
+            for (int i = 0; i < active; i++) {
+                State state = groups[i];
+                Transition transition = state.step(tokens, index);
+                for (int stopped : transition.stopped) {
+                    offer(result, state.threads[stopped], starts[i], index);
+                }
+                if (transition.next.threads.length > 0) {
+                    groups[kept] = transition.next;
+                    starts[kept] = starts[i];
+                    kept++;
+                }
+            }
+            active = kept;
+        }
+
+        for (int i = 0; i < active; i++) {
+            for (int node : groups[i].threads) {
+                offer(result, node, starts[i], size);
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private void offer(List<Hit> hits, int node, int start, int end) {
+        if (nodes.get(node).isFinal()) {
+            hits.add(new Hit(nodePatterns.get(node), start, end));
+        }
+    }
+
+    private Result offer(Result best, int node, int count, int window) {
+        if (count > 0 && nodes.get(node).isFinal()) {
+            int pattern = nodePatterns.get(node);
+            if (best == null || count > best.matchCount ||
+                (count == best.matchCount && (window < best.matchWindow ||
+                                              (window == best.matchWindow && pattern < best.pattern)))) {
+                return new Result(pattern, count, window);
+            }
+        }
+        return best;
+    }
+
+    static final class Result {
+        private final int pattern;
+        private final int matchCount;
+        private final int matchWindow;
+
+        private Result(int pattern, int matchCount, int matchWindow) {
+            this.pattern = pattern;
+            this.matchCount = matchCount;
+            this.matchWindow = matchWindow;
+        }
+
+        int getPattern() {
+            return pattern;
+        }
+
+        int getMatchCount() {
+            return matchCount;
+        }
+
+        int getMatchWindow() {
+            return matchWindow;
+        }
+    }
+
+    static final class Hit implements Comparable<Hit> {
+        private final int pattern;
+        private final int start;
+        private final int end;
+
+        private Hit(int pattern, int start, int end) {
+            this.pattern = pattern;
+            this.start = start;
+            this.end = end;
+        }
+
+        int getPattern() {
+            return pattern;
+        }
+
+        int getStart() {
+            return start;
+        }
+
+        int getEnd() {
+            return end;
+        }
+
+        public int compareTo(Hit o) {
+            if (start != o.start) {
+                return start < o.start ? -1 : 1;
+            }
+            return pattern < o.pattern ? -1 : (pattern == o.pattern ? 0 : 1);
+        }
+    }
+
+    final class State {
+        private final int[] threads;
+        private final Map<String, Integer> literals = new HashMap<String, Integer>();
+        private final int[] others;
+        private final ConcurrentMap<BitSet, Transition> transitions = new ConcurrentHashMap<BitSet, Transition>();
+
+        private State(int[] threads) {
+            this.threads = threads;
+
+            Set<Integer> tested = new LinkedHashSet<Integer>();
+            for (int thread : threads) {
+                for (int child : nodeChildren.get(thread)) {
+                    int predicate = nodePredicates.get(child);
+                    if (predicate != WILDCARD) {
+                        if (predicates.get(predicate) instanceof SimpleTokenMatcher) {
+                            literals.put(predicates.get(predicate).toString(), predicate);
+                        } else {
+                            tested.add(predicate);
+                        }
+                    }
+                }
+            }
+
+            others = new int[tested.size()];
+            int i = 0;
+            for (Integer predicate : tested) {
+                others[i++] = predicate;
+            }
+        }
+
+        int getThreadCount() {
+            return threads.length;
+        }
+
+        Transition step(TextAnnotation tokens, int index) {
+            BitSet matched = new BitSet();
+            if (!literals.isEmpty()) {
+                TextToken token = tokens.getToken(index);
+                Integer predicate = literals.get(token.getText());
+                if (predicate != null) {
+                    matched.set(predicate);
+                }
+            }
+            for (int predicate : others) {
+                if (predicates.get(predicate).match(tokens, index)) {
+                    matched.set(predicate);
+                }
+            }
+
+            Transition transition = transitions.get(matched);
+            if (transition == null) {
+                transition = build(matched);
+                if (transitions.size() < MAX_TRANSITIONS) {
+                    transitions.putIfAbsent(matched, transition);
+                }
+            }
+            return transition;
+        }
+
+        private Transition build(BitSet matched) {
+            int[] next = new int[threads.length];
+            int[] sources = new int[threads.length];
+            boolean[] counted = new boolean[threads.length];
+            int[] stopped = new int[threads.length];
+            int advanced = 0;
+            int stoppedCount = 0;
+
+            for (int i = 0; i < threads.length; i++) {
+                int target = -1;
+                for (int childId : nodeChildren.get(threads[i])) {
+                    int predicate = nodePredicates.get(childId);
+                    if (predicate == WILDCARD || matched.get(predicate)) {
+                        target = childId;
+                        break;
+                    }
+                }
+
+                if (target < 0) {
+                    // only the threads stopping on a final node can be reported
+                    if (nodes.get(threads[i]).isFinal()) {
+                        stopped[stoppedCount++] = i;
+                    }
+                } else {
+                    next[advanced] = target;
+                    sources[advanced] = i;
+                    counted[advanced] = nodes.get(target).getPriority() != TokenMatcher.PRIORITY_SKIP;
+                    advanced++;
+                }
+            }
+
+            return new Transition(intern(Arrays.copyOf(next, advanced)), Arrays.copyOf(sources, advanced),
+                                  Arrays.copyOf(counted, advanced), Arrays.copyOf(stopped, stoppedCount));
+        }
+    }
+
+    static final class Transition {
+        private final State next;
+        private final int[] sources;
+        private final boolean[] counted;
+        private final int[] stopped;
+
+        private Transition(State next, int[] sources, boolean[] counted, int[] stopped) {
+            this.next = next;
+            this.sources = sources;
+            this.counted = counted;
+            this.stopped = stopped;
+        }
+
+        State getNext() {
+            return next;
+        }
+    }
+
+    private static final class StateKey {
+        private final int[] threads;
+        private final int hash;
+
+        private StateKey(int[] threads) {
+            this.threads = threads;
+            this.hash = Arrays.hashCode(threads);
+        }
+
+        public boolean equals(Object o) {
+            return this == o || (o instanceof StateKey && Arrays.equals(threads, ((StateKey) o).threads));
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
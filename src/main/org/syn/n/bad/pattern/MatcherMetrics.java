@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.metrics.LatencyMetrics;
+
+import java.util.List;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class MatcherMetrics implements MatcherMXBean {
+    private static final int TOP_PATTERNS = 10;
+
+    private final Matcher matcher;
+    private final LatencyMetrics windows = new LatencyMetrics();
+    private final LatencyMetrics sentences = new LatencyMetrics();
+
+    MatcherMetrics(Matcher matcher) {
+        this.matcher = matcher;
+    }
+
+    LatencyMetrics getWindows() {
+        return windows;
+    }
+
+    LatencyMetrics getSentences() {
+        return sentences;
+    }
+
+    public int getPatternCount() {
+        return matcher.getMatchers().size();
+    }
+
+    public long getPatternVersion() {
+        return matcher.getVersion().getNumber();
+    }
+
+    public String[] getTopPatterns() {
+        PatternProfiler profiler = matcher.getProfiler();
+        if (profiler == null) {
+            return new String[0];
+        }
+
+        List<PatternProfile> top = profiler.top(TOP_PATTERNS);
+        String[] result = new String[top.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = top.get(i).toString();
+        }
+        return result;
+    }
+
+    public void reset() {
+        windows.reset();
+        sentences.reset();
+    }
+}
@@ -0,0 +1,489 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.EncodedTokens;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TokenLattice;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Immutable view of the patterns registered in a {@link Matcher}. Writers build a new snapshot and publish it,
+ * readers keep using the one they started with, without any locking.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class MatcherSnapshot {
+    private final long version;
+    private final List<PatternMatcher> matchers;
+    private final Map<String, String> styleLabels;
+    private final AnchorIndex anchors;
+    private final Map<PatternMatcher, GeneratedPattern> inherited;
+    private volatile Map<String, PatternMatcher> ids;
+    private volatile MatcherAutomaton automaton;
+    private volatile Map<PatternMatcher, GeneratedPattern> generated;
+    private final AtomicBoolean generating = new AtomicBoolean();
+    private volatile boolean superseded = false;
+
+    MatcherSnapshot() {
+        this(0, Collections.<PatternMatcher>emptyList(), new AnchorIndex(), null);
+    }
+
+    private MatcherSnapshot(long version, List<PatternMatcher> matchers, AnchorIndex anchors,
+                            Map<PatternMatcher, GeneratedPattern> inherited) {
+        this(version, matchers, anchors, collectStyleLabels(matchers), inherited);
+    }
+
+    private MatcherSnapshot(long version, List<PatternMatcher> matchers, AnchorIndex anchors,
+                            Map<String, String> styleLabels, Map<PatternMatcher, GeneratedPattern> inherited) {
+        this.version = version;
+        this.matchers = matchers instanceof SharedList ? matchers : Collections.unmodifiableList(matchers);
+        this.anchors = anchors;
+        this.styleLabels = styleLabels;
+        this.inherited = inherited;
+    }
+
+    private static Map<String, String> collectStyleLabels(List<PatternMatcher> matchers) {
+        Map<String, String> labels = new HashMap<String, String>();
+        for (PatternMatcher matcher : matchers) {
+            for (String label : matcher.getStyleLabels().keySet()) {
+                labels.put(label, "*");
+            }
+        }
+        return Collections.unmodifiableMap(labels);
+    }
+
+    /**
+     * Shares the pattern list and the anchor index of this snapshot instead of copying them, and keeps its style
+     * labels when the pattern brings no new one, so registering the patterns one at a time stays linear.
+     */
+    MatcherSnapshot add(PatternMatcher matcher) {
+        SharedList<PatternMatcher> result = SharedList.append(matchers instanceof SharedList ?
+                                                              (SharedList<PatternMatcher>) matchers :
+                                                              SharedList.copyOf(matchers), matcher);
+
+        AnchorIndex index = new AnchorIndex(anchors);
+        index.add(matcher);
+
+        Map<String, String> labels = styleLabels;
+        if (!labels.keySet().containsAll(matcher.getStyleLabels().keySet())) {
+            Map<String, String> added = new HashMap<String, String>(labels);
+            for (String label : matcher.getStyleLabels().keySet()) {
+                added.put(label, "*");
+            }
+            labels = Collections.unmodifiableMap(added);
+        }
+        superseded = true;
+        return new MatcherSnapshot(version + 1, result, index, labels, generated != null ? generated : inherited);
+    }
+
+    MatcherSnapshot remove(PatternMatcher matcher) {
+        List<PatternMatcher> result = new ArrayList<PatternMatcher>(matchers);
+        if (!result.remove(matcher)) {
+            return this;
+        }
+
+        AnchorIndex index = new AnchorIndex(anchors);
+        index.remove(matcher);
+        superseded = true;
+        return new MatcherSnapshot(version + 1, result, index, generated != null ? generated : inherited);
+    }
+
+    /**
+     * Applies a whole batch of changes in a single copy. The changes map each id to the pattern registered under it,
+     * or to <code>null</code> to remove every pattern with that id. A new pattern takes the place of the first one
+     * with its id and the others are appended, in the order of the changes. With <code>clear</code>, every pattern
+     * not in the changes is removed too. The patterns removed or replaced are added to <code>dropped</code>.
+     */
+    MatcherSnapshot update(Map<String, PatternMatcher> changes, boolean clear, List<PatternMatcher> dropped) {
+        List<PatternMatcher> result = new ArrayList<PatternMatcher>(matchers.size() + changes.size());
+        AnchorIndex index = clear ? new AnchorIndex() : new AnchorIndex(anchors);
+        // the patterns leaving the index, each with the one taking its place or null
+        List<PatternMatcher> removed = new ArrayList<PatternMatcher>();
+        List<PatternMatcher> replacements = new ArrayList<PatternMatcher>();
+        Set<String> placed = new HashSet<String>();
+        for (PatternMatcher matcher : matchers) {
+            String id = matcher.getId();
+            if (!clear && !changes.containsKey(id)) {
+                result.add(matcher);
+                continue;
+            }
+
+            dropped.add(matcher);
+            if (!clear) {
+                PatternMatcher replacement = changes.get(id);
+                removed.add(matcher);
+                if (replacement != null && placed.add(id)) {
+                    replacements.add(replacement);
+                    result.add(replacement);
+                } else {
+                    replacements.add(null);
+                }
+            }
+        }
+
+        int[] positions = index.removeAll(removed);
+        for (int i = 0; i < positions.length; i++) {
+            if (replacements.get(i) != null) {
+                index.add(replacements.get(i), positions[i]);
+            }
+        }
+        for (PatternMatcher matcher : changes.values()) {
+            if (matcher != null && !placed.contains(matcher.getId())) {
+                index.add(matcher);
+                result.add(matcher);
+            }
+        }
+        superseded = true;
+        return new MatcherSnapshot(version + 1, result, index, generated != null ? generated : inherited);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    List<PatternMatcher> getMatchers() {
+        return matchers;
+    }
+
+    /**
+     * The last pattern registered with the given id, or <code>null</code>. The ids are indexed on the first lookup,
+     * so registering a pattern does not copy them.
+     */
+    PatternMatcher getMatcher(String id) {
+        Map<String, PatternMatcher> result = ids;
+        if (result == null) {
+            result = new HashMap<String, PatternMatcher>();
+            for (PatternMatcher matcher : matchers) {
+                result.put(matcher.getId(), matcher);
+            }
+            ids = result;
+        }
+        return result.get(id);
+    }
+
+    Map<String, String> getStyleLabels() {
+        return styleLabels;
+    }
+
+    List<PatternMatcher> candidates(TextAnnotation textTokens, int from, int to) {
+        return anchors.candidates(textTokens, from, to);
+    }
+
+    List<PatternMatcher> candidates(TextAnnotation textTokens, int from, int to, MatchScratch scratch) {
+        return anchors.candidates(textTokens, from, to, scratch);
+    }
+
+    MatchResult match(EncodedTokens textTokens, int from, int to, List<PatternMatcher> candidates) {
+        return match(textTokens, from, to, candidates, MatchMode.SCAN);
+    }
+
+    MatchResult match(EncodedTokens textTokens, int from, int to, List<PatternMatcher> candidates,
+                      MatchMode mode) {
+        return match(textTokens, from, to, new CandidateOrder(candidates), mode, null);
+    }
+
+    /**
+     * Walks the candidates, strongest first, skipping the ones whose bounds cannot beat the best match found so
+     * far: the highest count, then the smallest window, then the earliest candidate.
+     */
+    MatchResult match(EncodedTokens textTokens, int from, int to, CandidateOrder candidates, MatchMode mode,
+                      PatternProfiler profiler) {
+        Map<PatternMatcher, GeneratedPattern> classes = mode == MatchMode.GENERATED ? getGenerated() : null;
+        PatternMatcher winner = null;
+        PatternMatcher.PatternMatch best = null;
+        int bestRank = -1;
+
+        for (int i = 0; i < candidates.size(); i++) {
+            PatternBounds bounds = candidates.getBounds(i);
+            int maxCount = bounds.getMaxCount(from, to);
+            if (best == null ? maxCount == 0 : maxCount < best.getMatchCount()) {
+                if (bounds.getMinWindow() > to - from) {
+                    continue;
+                }
+                // the candidates are sorted by count, none of the next ones can do better
+                break;
+            }
+            int rank = candidates.getRank(i);
+            if (best != null && maxCount == best.getMatchCount() &&
+                (bounds.getMinWindow() > best.getMatchWindow() ||
+                 (bounds.getMinWindow() == best.getMatchWindow() && rank > bestRank))) {
+                continue;
+            }
+
+            PatternMatcher matcher = candidates.getMatcher(i);
+            PatternMatcher.PatternMatch pm = walk(matcher, mode, classes, textTokens, from, to, profiler);
+            if (pm.getMatchCount() > 0 && (best == null || isBetter(pm, rank, best, bestRank))) {
+                winner = matcher;
+                best = pm;
+                bestRank = rank;
+            }
+        }
+
+        if (best == null) {
+            return new MatchResult(null, -1, null, null);
+        }
+        if (profiler != null) {
+            profiler.recordWin(winner);
+        }
+        return new MatchResult(winner.getId(), best.getMatchWindow(), best.getMatchedVars(),
+                               setupStyles(winner.getStyleLabels()));
+    }
+
+    private static boolean isBetter(PatternMatcher.PatternMatch pm, int rank, PatternMatcher.PatternMatch best,
+                                    int bestRank) {
+        if (pm.getMatchCount() != best.getMatchCount()) {
+            return pm.getMatchCount() > best.getMatchCount();
+        }
+        if (pm.getMatchWindow() != best.getMatchWindow()) {
+            return pm.getMatchWindow() < best.getMatchWindow();
+        }
+        return rank < bestRank;
+    }
+
+    /**
+     * Every match of every pattern, in the order of the start positions and then of the patterns. The automaton
+     * walks all the patterns from all the positions in a single pass over the sentence, only the patterns it reports
+     * are walked again, over their span, to collect their variables.
+     */
+    List<MatchSpan> matchSpans(EncodedTokens textTokens, PatternProfiler profiler) {
+        MatcherAutomaton compiled = getAutomaton();
+        Map<PatternMatcher, Map<String, String>> styles = new IdentityHashMap<PatternMatcher, Map<String, String>>();
+        List<MatchSpan> result = new ArrayList<MatchSpan>();
+
+        for (MatcherAutomaton.Hit hit : compiled.matchAll(textTokens.getTokens())) {
+            // the walk is deterministic, so walking the pattern again over the span yields the same path
+            PatternMatcher matcher = compiled.getPattern(hit.getPattern());
+            PatternMatcher.PatternMatch pm = walk(matcher, MatchMode.SCAN, null, textTokens, hit.getStart(),
+                                                  hit.getEnd(), profiler);
+            addSpan(result, styles, matcher, hit.getStart(), pm);
+        }
+        return result;
+    }
+
+    /**
+     * Every match of the candidates, walked from each position of the sentence, in the order of the positions and
+     * then of the candidates. The exhaustive mode explores every branch of the patterns, which the automaton does
+     * not, so it needs a walk for each position.
+     */
+    List<MatchSpan> matchSpans(EncodedTokens textTokens, List<PatternMatcher> candidates, MatchMode mode,
+                               PatternProfiler profiler) {
+        Map<PatternMatcher, GeneratedPattern> classes = mode == MatchMode.GENERATED ? getGenerated() : null;
+        Map<PatternMatcher, Map<String, String>> styles = new IdentityHashMap<PatternMatcher, Map<String, String>>();
+        List<MatchSpan> result = new ArrayList<MatchSpan>();
+        int size = textTokens.size();
+
+        for (int i = 0; i < size; i++) {
+            for (PatternMatcher matcher : candidates) {
+                addSpan(result, styles, matcher, i, walk(matcher, mode, classes, textTokens, i, size, profiler));
+            }
+        }
+        return result;
+    }
+
+    private void addSpan(List<MatchSpan> spans, Map<PatternMatcher, Map<String, String>> styles,
+                         PatternMatcher matcher, int start, PatternMatcher.PatternMatch pm) {
+        if (pm.getMatchCount() > 0) {
+            Map<String, String> labels = styles.get(matcher);
+            if (labels == null) {
+                labels = Collections.unmodifiableMap(setupStyles(matcher.getStyleLabels()));
+                styles.put(matcher, labels);
+            }
+            spans.add(new MatchSpan(matcher.getId(), start, start + pm.getMatchWindow(), pm.getMatchCount(),
+                                    pm.getMatchedVars(), labels));
+        }
+    }
+
+    private static PatternMatcher.PatternMatch walk(PatternMatcher matcher, MatchMode mode,
+                                                    Map<PatternMatcher, GeneratedPattern> classes,
+                                                    EncodedTokens textTokens, int from, int to,
+                                                    PatternProfiler profiler) {
+        if (profiler == null) {
+            return walk(matcher, mode, classes, textTokens, from, to);
+        }
+        long start = System.nanoTime();
+        PatternMatcher.PatternMatch result = walk(matcher, mode, classes, textTokens, from, to);
+        profiler.recordWalk(matcher, System.nanoTime() - start, result);
+        return result;
+    }
+
+    private static PatternMatcher.PatternMatch walk(PatternMatcher matcher, MatchMode mode,
+                                                    Map<PatternMatcher, GeneratedPattern> classes,
+                                                    EncodedTokens textTokens, int from, int to) {
+        if (mode == MatchMode.EXHAUSTIVE) {
+            return matcher.matchExhaustive(textTokens, from, to);
+        }
+
+        GeneratedPattern generated = classes == null ? null : classes.get(matcher);
+        return generated == null ? matcher.match(textTokens, from, to) :
+               generated.match(textTokens.getTokens(), from, to);
+    }
+
+    MatchResult match(EncodedTokens textTokens, int from, int to, List<PatternMatcher> candidates,
+                      ForkJoinPool pool, int threshold, PatternProfiler profiler) {
+        PatternMatchTask.Best best = pool.invoke(new PatternMatchTask(candidates, textTokens, from, to, threshold,
+                                                                      profiler));
+        if (best == null) {
+            return new MatchResult(null, -1, null, null);
+        }
+
+        PatternMatcher matcher = candidates.get(best.getIndex());
+        if (profiler != null) {
+            profiler.recordWin(matcher);
+        }
+        return new MatchResult(matcher.getId(), best.getMatch().getMatchWindow(), best.getMatch().getMatchedVars(),
+                               setupStyles(matcher.getStyleLabels()));
+    }
+
+    LatticeMatchResult match(TokenLattice lattice, int from, int to, List<PatternMatcher> candidates) {
+        PatternMatcher winner = null;
+        LatticeWalk.Path best = null;
+        for (PatternMatcher matcher : candidates) {
+            LatticeWalk.Path path = LatticeWalk.walk(matcher, lattice, from, to);
+            if (path != null && (best == null || path.isBetter(best))) {
+                winner = matcher;
+                best = path;
+            }
+        }
+
+        if (best == null) {
+            return new LatticeMatchResult(null, -1, null, null, 0, null);
+        }
+
+        TextAnnotation path = lattice.getPath(best.getIndexes());
+        PatternMatcher.PatternMatch pm = winner.match(path, 0, path.size());
+        return new LatticeMatchResult(winner.getId(), best.getMatchWindow(), pm.getMatchedVars(),
+                                      setupStyles(winner.getStyleLabels()), best.getScore(), path);
+    }
+
+    MatchResult matchCompiled(EncodedTokens textTokens, int from, int to, PatternProfiler profiler) {
+        MatcherAutomaton compiled = getAutomaton();
+        MatcherAutomaton.Result best = compiled.match(textTokens.getTokens(), from, to);
+        if (best == null) {
+            return new MatchResult(null, -1, null, null);
+        }
+
+        // the automaton only tracks counters, the winner is walked once more to collect its variables
+        PatternMatcher matcher = compiled.getPattern(best.getPattern());
+        if (profiler != null) {
+            profiler.recordWin(matcher);
+        }
+        PatternMatcher.PatternMatch pm = matcher.match(textTokens, from, to);
+        return new MatchResult(matcher.getId(), best.getMatchWindow(), pm.getMatchedVars(),
+                               setupStyles(matcher.getStyleLabels()));
+    }
+
+    MatcherAutomaton getAutomaton() {
+        MatcherAutomaton result = automaton;
+        if (result == null) {
+            synchronized (this) {
+                result = automaton;
+                if (result == null) {
+                    result = new MatcherAutomaton(matchers);
+                    automaton = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The classes generated for the patterns. It never waits for the compiler: until the classes of this snapshot
+     * are compiled in the background, it returns the ones of the previous snapshot and the other patterns use the
+     * interpreter.
+     */
+    Map<PatternMatcher, GeneratedPattern> getGenerated() {
+        Map<PatternMatcher, GeneratedPattern> result = generated;
+        if (result == null) {
+            startGenerating();
+            result = inherited;
+        }
+        return result;
+    }
+
+    /**
+     * Starts compiling the classes of the patterns in the background, once. The snapshots already replaced by a
+     * newer one when the compiler gets to them are skipped, so a burst of changes compiles only the last one.
+     */
+    void startGenerating() {
+        if (generated == null && generating.compareAndSet(false, true)) {
+            PatternCompiler.submit(new Runnable() {
+                public void run() {
+                    if (!superseded) {
+                        generate();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Compiles the classes of the patterns, reusing the ones of the previous snapshot so that a new pattern only
+     * compiles itself, and waits for them.
+     */
+    synchronized Map<PatternMatcher, GeneratedPattern> generate() {
+        Map<PatternMatcher, GeneratedPattern> result = generated;
+        if (result == null) {
+            result = new IdentityHashMap<PatternMatcher, GeneratedPattern>();
+            List<PatternMatcher> missing = new ArrayList<PatternMatcher>();
+            for (PatternMatcher matcher : matchers) {
+                GeneratedPattern previous = inherited == null ? null : inherited.get(matcher);
+                if (previous != null) {
+                    result.put(matcher, previous);
+                } else {
+                    missing.add(matcher);
+                }
+            }
+            result.putAll(PatternCompiler.compile(missing));
+            result = Collections.unmodifiableMap(result);
+            generated = result;
+        }
+        return result;
+    }
+
+    Map<String, String> setupStyles(Map<String, String> mathcherStyles) {
+        Map<String, String> result = new HashMap<String, String>(styleLabels);
+        result.putAll(mathcherStyles);
+
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A batch of changes to the patterns of a {@link Matcher}, keyed by {@link PatternMatcher#getId()}. The changes
+ * are collected without touching the matcher and {@link #publish()} applies them in one step: the matches already
+ * running finish with the previous patterns and the next ones see the whole batch at once.
+ * <p/>
+ * An update is meant to be filled and published by a single thread.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class MatcherUpdate {
+    private final Matcher matcher;
+    private final Map<String, PatternMatcher> changes = new LinkedHashMap<String, PatternMatcher>();
+    private boolean clear = false;
+
+    MatcherUpdate(Matcher matcher) {
+        this.matcher = matcher;
+    }
+
+    /**
+     * Registers the pattern, in place of the patterns with the same id. Invalid patterns are ignored.
+     */
+    public MatcherUpdate add(PatternMatcher pattern) {
+        if (pattern.isValid()) {
+            changes.remove(pattern.getId());
+            changes.put(pattern.getId(), pattern);
+        }
+        return this;
+    }
+
+    public MatcherUpdate addAll(Collection<PatternMatcher> patterns) {
+        for (PatternMatcher pattern : patterns) {
+            add(pattern);
+        }
+        return this;
+    }
+
+    /**
+     * Removes every pattern with the given id.
+     */
+    public MatcherUpdate remove(String id) {
+        changes.remove(id);
+        changes.put(id, null);
+        return this;
+    }
+
+    public MatcherUpdate removeAll(Collection<String> ids) {
+        for (String id : ids) {
+            remove(id);
+        }
+        return this;
+    }
+
+    /**
+     * Replaces all the registered patterns with the given ones.
+     */
+    public MatcherUpdate replaceAll(Collection<PatternMatcher> patterns) {
+        changes.clear();
+        clear = true;
+        return addAll(patterns);
+    }
+
+    /**
+     * Applies the changes and returns the version of the patterns they produced. The update can be published again
+     * on top of later changes.
+     */
+    public MatcherVersion publish() {
+        return matcher.publish(new LinkedHashMap<String, PatternMatcher>(changes), clear);
+    }
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.TextAnnotation;
+
+import java.util.List;
+
+/**
+ * The patterns of a {@link Matcher} at one point in time. The matches of a version always use its patterns, even
+ * after the matcher changed, so a request can pin the version it started with. The matching modes are still the
+ * ones of the matcher.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class MatcherVersion {
+    private final Matcher matcher;
+    private final MatcherSnapshot snapshot;
+
+    MatcherVersion(Matcher matcher, MatcherSnapshot snapshot) {
+        this.matcher = matcher;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Number of the version, increased by every change of the matcher.
+     */
+    public long getNumber() {
+        return snapshot.getVersion();
+    }
+
+    public List<PatternMatcher> getMatchers() {
+        return snapshot.getMatchers();
+    }
+
+    public PatternMatcher getMatcher(String id) {
+        return snapshot.getMatcher(id);
+    }
+
+    public MatchResult match(TextAnnotation textTokens, int from, int to) {
+        return matcher.match(snapshot, textTokens, from, to);
+    }
+
+    public TemplateMatchResult match(TextAnnotation textTokens) {
+        return matcher.match(snapshot, textTokens);
+    }
+
+    public List<MatchSpan> matchSpans(TextAnnotation textTokens, OverlapPolicy policy) {
+        return matcher.matchSpans(snapshot, textTokens, policy);
+    }
+
+    public MatchSession openSession() {
+        return new MatchSession(snapshot);
+    }
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.pattern.token.GapMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Limits of what a pattern can match, read from its graph: the fewest tokens it needs to reach a final node and
+ * the most non skip tokens it can count on the way. A pattern with a loop has no upper bound on its count, other
+ * than the number of tokens it is given.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+final class PatternBounds {
+    static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final int minWindow;
+    private final int maxCount;
+
+    private PatternBounds(int minWindow, int maxCount) {
+        this.minWindow = minWindow;
+        this.maxCount = maxCount;
+    }
+
+    static PatternBounds of(TokenMatcher start) {
+        if (start == null) {
+            return new PatternBounds(UNBOUNDED, 0);
+        }
+
+        Map<TokenMatcher, Integer> counts = new IdentityHashMap<TokenMatcher, Integer>();
+        Set<TokenMatcher> path = Collections.newSetFromMap(new IdentityHashMap<TokenMatcher, Boolean>());
+        int count;
+        try {
+            count = maxCount(start, counts, path);
+        } catch (IllegalStateException e) {
+            // loop in the pattern
+            count = UNBOUNDED;
+        }
+        return new PatternBounds(minWindow(start), Math.max(0, count));
+    }
+
+    /**
+     * Shortest walk, in tokens, from the start to a final node. A gap costs one token to enter and as many as its
+     * minimum width before it can be left.
+     */
+    private static int minWindow(TokenMatcher start) {
+        Map<TokenMatcher, Integer> distances = new IdentityHashMap<TokenMatcher, Integer>();
+        PriorityQueue<Step> queue = new PriorityQueue<Step>(11, new Comparator<Step>() {
+            @Override
+            public int compare(Step first, Step second) {
+                return first.distance < second.distance ? -1 : (first.distance == second.distance ? 0 : 1);
+            }
+        });
+        for (TokenMatcher child : start.getMatcherList()) {
+            queue.add(new Step(child, 1));
+        }
+
+        while (!queue.isEmpty()) {
+            Step step = queue.poll();
+            if (distances.containsKey(step.node)) {
+                continue;
+            }
+            distances.put(step.node, step.distance);
+            if (step.node.isFinal()) {
+                return step.distance;
+            }
+            int cost = step.node instanceof GapMatcher ? Math.max(((GapMatcher) step.node).getMin(), 1) : 1;
+            for (TokenMatcher child : step.node.getMatcherList()) {
+                if (!distances.containsKey(child)) {
+                    queue.add(new Step(child, step.distance + cost));
+                }
+            }
+        }
+        return UNBOUNDED;
+    }
+
+    /**
+     * Highest count of a walk from <code>node</code> to a final node, or a negative value if there is none.
+     */
+    private static int maxCount(TokenMatcher node, Map<TokenMatcher, Integer> counts, Set<TokenMatcher> path) {
+        Integer known = counts.get(node);
+        if (known != null) {
+            return known;
+        }
+        if (!path.add(node)) {
+            throw new IllegalStateException("Loop at " + node);
+        }
+
+        int result = node.isFinal() ? 0 : -1;
+        for (TokenMatcher child : node.getMatcherList()) {
+            int count = maxCount(child, counts, path);
+            if (count >= 0) {
+                result = Math.max(result, count + (child.getPriority() != TokenMatcher.PRIORITY_SKIP ? 1 : 0));
+            }
+        }
+
+        path.remove(node);
+        counts.put(node, result);
+        return result;
+    }
+
+    int getMinWindow() {
+        return minWindow;
+    }
+
+    int getMaxCount() {
+        return maxCount;
+    }
+
+    /**
+     * The most a walk of this pattern can count between <code>from</code> and <code>to</code>, or zero if it cannot
+     * reach a final node in that window.
+     */
+    int getMaxCount(int from, int to) {
+        int window = to - from;
+        return minWindow > window ? 0 : Math.min(maxCount, window);
+    }
+
+    private static final class Step {
+        private final TokenMatcher node;
+        private final int distance;
+
+        private Step(TokenMatcher node, int distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.pattern.token.*;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * Binary form of the patterns of a {@link Matcher}: the graph of every pattern, the synsets already resolved by its
+ * synonym matchers and its style labels. Loading a bundle maps the file in memory and rebuilds the graphs, without
+ * parsing the patterns again or querying the dictionary.
+ * <p/>
+ * The bundle starts with a magic number and a format version, a bundle written by a later version is rejected.
+ * Version 2 adds the gap nodes, bundles of version 1 are still readable.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class PatternBundle {
+    public static final int MAGIC = 0x53424442;
+    public static final int VERSION = 2;
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final byte SKIP = 0;
+    private static final byte CONSUMER = 1;
+    private static final byte SIMPLE = 2;
+    private static final byte POS = 3;
+    private static final byte SYN = 4;
+    private static final byte GAP = 5;
+
+    private static final int FLAG_MANDATORY = 1;
+    private static final int FLAG_FINAL = 2;
+
+    private PatternBundle() {
+    }
+
+    public static void write(Matcher matcher, File file) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            write(matcher.getMatchers(), out);
+        } finally {
+            out.close();
+        }
+    }
+
+    public static void write(List<PatternMatcher> matchers, DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(matchers.size());
+        for (PatternMatcher matcher : matchers) {
+            writeString(out, matcher.getId());
+            writeString(out, matcher.toString());
+
+            out.writeInt(matcher.getStyleLabels().size());
+            for (Map.Entry<String, String> style : matcher.getStyleLabels().entrySet()) {
+                writeString(out, style.getKey());
+                writeString(out, style.getValue());
+            }
+
+            writeGraph(matcher.getStart(), out);
+        }
+    }
+
+    private static void writeGraph(TokenMatcher start, DataOutput out) throws IOException {
+        // the nodes are numbered in the order they are reached, the start being the first one
+        List<TokenMatcher> nodes = new ArrayList<TokenMatcher>();
+        Map<TokenMatcher, Integer> numbers = new IdentityHashMap<TokenMatcher, Integer>();
+        nodes.add(start);
+        numbers.put(start, 0);
+        for (int i = 0; i < nodes.size(); i++) {
+            for (TokenMatcher child : nodes.get(i).getMatcherList()) {
+                if (!numbers.containsKey(child)) {
+                    numbers.put(child, nodes.size());
+                    nodes.add(child);
+                }
+            }
+        }
+
+        out.writeInt(nodes.size());
+        for (TokenMatcher node : nodes) {
+            writeNode(node, out);
+        }
+        for (TokenMatcher node : nodes) {
+            out.writeInt(node.getMatcherList().size());
+            for (TokenMatcher child : node.getMatcherList()) {
+                out.writeInt(numbers.get(child));
+            }
+        }
+    }
+
+    private static void writeNode(TokenMatcher node, DataOutput out) throws IOException {
+        String text = node.toString();
+        byte kind;
+        if (node instanceof SkipMatcher) {
+            kind = SKIP;
+        } else if (node instanceof GapMatcher) {
+            kind = GAP;
+        } else if (node instanceof ConsumerMatcher) {
+            kind = CONSUMER;
+            text = text.substring(1);
+        } else if (node instanceof POSMatcher) {
+            kind = POS;
+            text = text.substring(1, text.length() - 1);
+        } else if (node instanceof SynMatcher) {
+            kind = SYN;
+            text = text.substring(1, text.length() - 1);
+        } else if (node instanceof SimpleTokenMatcher) {
+            kind = SIMPLE;
+        } else {
+            throw new IOException("Cannot write the token matcher " + node.getClass().getName());
+        }
+
+        int flags = 0;
+        if (node.getPriority() == TokenMatcher.PRIORITY_MANDATORY) {
+            flags |= FLAG_MANDATORY;
+        }
+        if (node.isFinal()) {
+            flags |= FLAG_FINAL;
+        }
+
+        out.writeByte(kind);
+        out.writeByte(flags);
+        writeString(out, text);
+        if (kind == SYN) {
+            SynMatcher syn = (SynMatcher) node;
+            writeString(out, syn.getLanguage().toLanguageTag());
+            out.writeInt(syn.getSynsets().size());
+            for (String synset : syn.getSynsets()) {
+                writeString(out, synset);
+            }
+        } else if (kind == GAP) {
+            GapMatcher gap = (GapMatcher) node;
+            out.writeInt(gap.getMin());
+            out.writeInt(gap.getMax());
+        }
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(UTF8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Maps the bundle in memory and registers its patterns in a new matcher.
+     */
+    public static Matcher load(File file) throws IOException {
+        Matcher matcher = new Matcher();
+        matcher.update().addAll(read(file)).publish();
+        return matcher;
+    }
+
+    public static List<PatternMatcher> read(File file) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = input.getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        } finally {
+            input.close();
+        }
+    }
+
+    public static List<PatternMatcher> read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 12 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a pattern bundle");
+        }
+        int version = buffer.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported pattern bundle version " + version + ", expected " + VERSION);
+        }
+
+        try {
+            int count = readLength(buffer, 16);
+            List<PatternMatcher> result = new ArrayList<PatternMatcher>(count);
+            for (int i = 0; i < count; i++) {
+                String id = readString(buffer);
+                String pattern = readString(buffer);
+
+                Map<String, String> styles = new HashMap<String, String>();
+                int styleCount = readLength(buffer, 8);
+                for (int j = 0; j < styleCount; j++) {
+                    String label = readString(buffer);
+                    styles.put(label, readString(buffer));
+                }
+
+                PatternMatcher matcher = new PatternMatcher(id, pattern, readGraph(buffer));
+                matcher.addStyleLabels(styles);
+                result.add(matcher);
+            }
+            return result;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated pattern bundle", e);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted pattern bundle", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupted pattern bundle", e);
+        }
+    }
+
+    private static TokenMatcher readGraph(ByteBuffer buffer) throws IOException {
+        TokenMatcher[] nodes = new TokenMatcher[readLength(buffer, 10)];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = readNode(buffer);
+        }
+        for (TokenMatcher node : nodes) {
+            int edges = readLength(buffer, 4);
+            for (int j = 0; j < edges; j++) {
+                node.addNext(nodes[buffer.getInt()]);
+            }
+        }
+        return nodes[0];
+    }
+
+    private static TokenMatcher readNode(ByteBuffer buffer) throws IOException {
+        byte kind = buffer.get();
+        int flags = buffer.get();
+        boolean mandatory = (flags & FLAG_MANDATORY) != 0;
+        String text = readString(buffer);
+
+        TokenMatcher result;
+        switch (kind) {
+            case SKIP:
+                result = new SkipMatcher();
+                break;
+            case GAP:
+                int min = buffer.getInt();
+                result = new GapMatcher(min, buffer.getInt());
+                break;
+            case CONSUMER:
+                result = new ConsumerMatcher(text);
+                break;
+            case SIMPLE:
+                result = new SimpleTokenMatcher(text, mandatory);
+                break;
+            case POS:
+                result = new POSMatcher(text, mandatory);
+                break;
+            case SYN:
+                Locale language = Locale.forLanguageTag(readString(buffer));
+                Set<String> synsets = new HashSet<String>();
+                int count = readLength(buffer, 4);
+                for (int i = 0; i < count; i++) {
+                    synsets.add(readString(buffer));
+                }
+                result = new SynMatcher(language, text, mandatory, synsets);
+                break;
+            default:
+                throw new IOException("Unknown token matcher kind " + kind);
+        }
+
+        result.setFinal((flags & FLAG_FINAL) != 0);
+        return result;
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        byte[] bytes = new byte[readLength(buffer, 1)];
+        buffer.get(bytes);
+        return new String(bytes, UTF8);
+    }
+
+    /**
+     * Reads a length prefix, rejecting it before anything is allocated when the rest of the bundle cannot hold that
+     * many elements of at least {@code minBytes} each.
+     */
+    private static int readLength(ByteBuffer buffer, int minBytes) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining() / minBytes) {
+            throw new IOException("Corrupted pattern bundle, invalid length " + length + " at offset " +
+                                  (buffer.position() - 4));
+        }
+        return length;
+    }
+
+    /**
+     * Reads a pattern file: one pattern per line, as <code>id&lt;TAB&gt;pattern</code> or
+     * <code>id&lt;TAB&gt;pattern&lt;TAB&gt;styles</code>. Empty lines and lines starting with <code>//</code> are
+     * ignored.
+     */
+    public static List<PatternMatcher> readPatterns(Reader reader, Locale language) throws IOException {
+        List<PatternMatcher> result = new ArrayList<PatternMatcher>();
+        BufferedReader input = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = input.readLine()) != null) {
+            number++;
+            if (line.trim().length() == 0 || line.trim().startsWith("//")) {
+                continue;
+            }
+
+            String[] parts = line.split("\t");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IOException("Invalid pattern at line " + number + ": " + line);
+            }
+            PatternMatcher matcher = new PatternMatcher(parts[0].trim(), parts[1].trim(),
+                                                        parts.length == 3 ? parts[2].trim() : null, language);
+            if (matcher.isValid()) {
+                result.add(matcher);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compiles a pattern file into a bundle: <code>PatternBundle patterns.txt patterns.bundle [language]</code>.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PatternBundle <patterns file> <bundle file> [language]");
+            System.exit(1);
+        }
+
+        Locale language = args.length > 2 ? Locale.forLanguageTag(args[2]) : Locale.ENGLISH;
+        Reader reader = new InputStreamReader(new FileInputStream(args[0]), UTF8);
+        List<PatternMatcher> patterns;
+        try {
+            patterns = readPatterns(reader, language);
+        } finally {
+            reader.close();
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(args[1])));
+        try {
+            write(patterns, out);
+        } finally {
+            out.close();
+        }
+        System.out.println("Wrote " + patterns.size() + " patterns to " + args[1]);
+    }
+}
@@ -0,0 +1,410 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.pattern.token.ConsumerMatcher;
+import org.syn.n.bad.pattern.token.GapMatcher;
+import org.syn.n.bad.pattern.token.SimpleTokenMatcher;
+import org.syn.n.bad.pattern.token.SkipMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates one class per pattern, with the whole walk in a single method: every node of the token graph is a case
+ * of the walk, its literal successors are inlined as a <code>switch</code> on the token text and the other
+ * successors are tested in the same order as the interpreter. The patterns too large for a method the JIT would
+ * compile are left to the interpreter. All the patterns of a set are compiled in-process with a single call of the
+ * system Java compiler, on a background thread shared by all the matchers.
+ * <p/>
+ * When the compiler is not available (a JRE without the <code>java.compiler</code> module) or the generated code
+ * does not compile, no class is returned and the interpreter is used instead.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class PatternCompiler {
+    private static final String PACKAGE = "org.syn.n.bad.pattern.generated";
+    // keeps the generated method under the size the JIT compilers accept
+    private static final int MAX_EDGES = 160;
+    private static final AtomicInteger classCounter = new AtomicInteger();
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    private PatternCompiler() {
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadPoolExecutor result = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                                                           new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "syn-bad-compiler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    /**
+     * Runs the task on the compiler thread, after the ones already submitted.
+     */
+    static void submit(Runnable task) {
+        executor.execute(task);
+    }
+
+    static boolean isAvailable() {
+        return ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    static Map<PatternMatcher, GeneratedPattern> compile(List<PatternMatcher> patterns) {
+        Map<PatternMatcher, GeneratedPattern> result = new IdentityHashMap<PatternMatcher, GeneratedPattern>();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return result;
+        }
+
+        List<JavaFileObject> sources = new ArrayList<JavaFileObject>();
+        Map<String, PatternMatcher> classPatterns = new LinkedHashMap<String, PatternMatcher>();
+        Map<String, TokenMatcher[]> classPredicates = new HashMap<String, TokenMatcher[]>();
+        for (PatternMatcher pattern : patterns) {
+            String className = "Pattern" + classCounter.incrementAndGet();
+            List<TokenMatcher> predicates = new ArrayList<TokenMatcher>();
+            String source = generate(className, pattern.getStart(), predicates);
+            if (source == null) {
+                continue;
+            }
+
+            sources.add(new SourceFile(className, source));
+            classPatterns.put(PACKAGE + "." + className, pattern);
+            classPredicates.put(PACKAGE + "." + className, predicates.toArray(new TokenMatcher[predicates.size()]));
+        }
+
+        if (sources.isEmpty()) {
+            return result;
+        }
+
+        MemoryFileManager fileManager = new MemoryFileManager(compiler.getStandardFileManager(null, null, null));
+        List<String> options = Arrays.asList("-classpath", getClassPath(), "-proc:none", "-g:none");
+        try {
+            Boolean success = compiler.getTask(null, fileManager, new DiagnosticCollector<JavaFileObject>(), options,
+                                               null, sources).call();
+            if (!success) {
+                return result;
+            }
+
+            MemoryClassLoader loader = new MemoryClassLoader(fileManager.classes);
+            for (Map.Entry<String, PatternMatcher> entry : classPatterns.entrySet()) {
+                Class<?> type = loader.loadClass(entry.getKey());
+                result.put(entry.getValue(), (GeneratedPattern) type.getConstructor(TokenMatcher[].class)
+                        .newInstance(new Object[]{classPredicates.get(entry.getKey())}));
+            }
+        } catch (Exception e) {
+            result.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the source of the class, or <code>null</code> if the pattern is too large to be compiled.
+     */
+    static String generate(String className, TokenMatcher start, List<TokenMatcher> predicates) {
+        List<TokenMatcher> nodes = new ArrayList<TokenMatcher>();
+        Map<TokenMatcher, Integer> ids = new IdentityHashMap<TokenMatcher, Integer>();
+        ids.put(start, 0);
+        nodes.add(start);
+        int edges = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            edges += nodes.get(i).getMatcherList().size();
+            if (edges > MAX_EDGES) {
+                return null;
+            }
+
+            for (TokenMatcher child : nodes.get(i).getMatcherList()) {
+                if (!ids.containsKey(child)) {
+                    ids.put(child, nodes.size());
+                    nodes.add(child);
+                }
+            }
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("package ").append(PACKAGE).append(";\n\n");
+        sb.append("import org.syn.n.bad.annotation.TextAnnotation;\n");
+        sb.append("import org.syn.n.bad.pattern.GeneratedPattern;\n");
+        sb.append("import org.syn.n.bad.pattern.PatternMatcher;\n");
+        sb.append("import org.syn.n.bad.pattern.token.TokenMatcher;\n\n");
+        sb.append("public final class ").append(className).append(" extends GeneratedPattern {\n");
+        sb.append("    public ").append(className).append("(TokenMatcher[] predicates) {\n");
+        sb.append("        super(predicates);\n");
+        sb.append("    }\n\n");
+
+        sb.append("    public PatternMatcher.PatternMatch match(TextAnnotation tokens, int from, int to) {\n");
+        sb.append("        java.util.Map<String, String> vars = null;\n");
+        sb.append("        int node = 0;\n");
+        sb.append("        int count = 0;\n");
+        sb.append("        int gap = 0;\n");
+        sb.append("        int index = from;\n");
+        sb.append("        walk:\n");
+        sb.append("        while (index < to) {\n");
+        sb.append("            switch (node) {\n");
+        for (int i = 0; i < nodes.size(); i++) {
+            TokenMatcher node = nodes.get(i);
+            List<TokenMatcher> children = node.getMatcherList();
+            if (children.isEmpty()) {
+                continue;
+            }
+
+            sb.append("                case ").append(i).append(": {\n");
+            if (node instanceof GapMatcher) {
+                // the successors are tried first, staying in the gap comes last
+                GapMatcher gap = (GapMatcher) node;
+                boolean complete;
+                if (gap.getMin() > 1) {
+                    sb.append("                    if (gap >= ").append(gap.getMin()).append(") {\n");
+                    appendChildren(sb, children, ids, predicates);
+                    sb.append("                    }\n");
+                    complete = false;
+                } else {
+                    complete = appendChildren(sb, children, ids, predicates);
+                }
+                if (!complete) {
+                    sb.append("                    if (gap < ").append(gap.getMax())
+                      .append(") { gap++; index++; continue walk; }\n");
+                    sb.append("                    break walk;\n");
+                }
+            } else if (!appendChildren(sb, children, ids, predicates)) {
+                sb.append("                    break walk;\n");
+            }
+            sb.append("                }\n");
+        }
+        sb.append("                default:\n");
+        sb.append("                    break walk;\n");
+        sb.append("            }\n");
+        sb.append("        }\n\n");
+
+        sb.append("        int examined = index < to ? index - from + 1 : index - from;\n");
+        sb.append("        switch (node) {\n");
+        for (int i = 0; i < nodes.size(); i++) {
+            if (nodes.get(i).isFinal()) {
+                sb.append("            case ").append(i).append(":\n");
+            }
+        }
+        sb.append("                return new PatternMatcher.PatternMatch(count, index - from,\n");
+        sb.append("                        vars == null ? java.util.Collections.<String, String>emptyMap() : vars, ")
+          .append("examined);\n");
+        sb.append("            default:\n");
+        sb.append("                return new PatternMatcher.PatternMatch(0, 0, ")
+          .append("java.util.Collections.<String, String>emptyMap(), examined);\n");
+        sb.append("        }\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Tries the successors of a node in order, returns <code>true</code> if one of them always matches, the code
+     * after it being unreachable.
+     */
+    private static boolean appendChildren(StringBuilder sb, List<TokenMatcher> children,
+                                          Map<TokenMatcher, Integer> ids, List<TokenMatcher> predicates) {
+        boolean text = false;
+        for (TokenMatcher child : children) {
+            text |= child instanceof SimpleTokenMatcher;
+        }
+        if (text) {
+            sb.append("                    String text = tokens.getToken(index).getText();\n");
+        }
+
+        Set<String> literals = new HashSet<String>();
+        boolean inSwitch = false;
+        for (TokenMatcher child : children) {
+            if (child instanceof SimpleTokenMatcher) {
+                if (!inSwitch) {
+                    sb.append("                    if (text != null) {\n");
+                    sb.append("                        switch (text) {\n");
+                    inSwitch = true;
+                }
+                // a literal already tested earlier in the list can never be reached
+                if (literals.add(child.toString())) {
+                    sb.append("                            case ").append(literal(child.toString())).append(": ");
+                    appendStep(sb, child, ids.get(child));
+                }
+                continue;
+            }
+
+            if (inSwitch) {
+                sb.append("                        }\n");
+                sb.append("                    }\n");
+                inSwitch = false;
+            }
+            if (child instanceof SkipMatcher || child instanceof ConsumerMatcher || child instanceof GapMatcher) {
+                sb.append("                    ");
+                appendStep(sb, child, ids.get(child));
+                return true;
+            }
+
+            sb.append("                    if (predicates[").append(predicates.size())
+              .append("].match(tokens, index)) {\n");
+            sb.append("                        ");
+            appendStep(sb, child, ids.get(child));
+            sb.append("                    }\n");
+            predicates.add(child);
+        }
+
+        if (inSwitch) {
+            sb.append("                        }\n");
+            sb.append("                    }\n");
+        }
+        return false;
+    }
+
+    private static void appendStep(StringBuilder sb, TokenMatcher target, int id) {
+        sb.append("node = ").append(id).append(";");
+        if (target instanceof GapMatcher) {
+            sb.append(" gap = 1;");
+        }
+        if (target.getPriority() != TokenMatcher.PRIORITY_SKIP) {
+            sb.append(" count++;");
+        }
+        if (target.hasVariableLabel()) {
+            sb.append(" vars = capture(vars, ").append(literal(target.getVariableLabel()))
+              .append(", tokens.getToken(index).getText());");
+        }
+        sb.append(" index++; continue walk;\n");
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String getClassPath() {
+        StringBuilder sb = new StringBuilder(System.getProperty("java.class.path", ""));
+        CodeSource source = PatternCompiler.class.getProtectionDomain().getCodeSource();
+        if (source != null && source.getLocation() != null) {
+            try {
+                sb.append(File.pathSeparator).append(new File(source.getLocation().toURI()).getPath());
+            } catch (Exception e) {
+                // the class path of the JVM is used alone
+            }
+        }
+        return sb.toString();
+    }
+
+    private static final class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        private SourceFile(String className, String source) {
+            super(URI.create("string:///" + PACKAGE.replace('.', '/') + "/" + className + Kind.SOURCE.extension),
+                  Kind.SOURCE);
+            this.source = source;
+        }
+
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private ClassFile(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ClassFile> classes = new HashMap<String, ClassFile>();
+
+        private MemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                                                   FileObject sibling) {
+            ClassFile file = new ClassFile(className);
+            classes.put(className, file);
+            return file;
+        }
+    }
+
+    private static final class MemoryClassLoader extends ClassLoader {
+        private final Map<String, ClassFile> classes;
+
+        private MemoryClassLoader(Map<String, ClassFile> classes) {
+            super(GeneratedPattern.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            ClassFile file = classes.get(name);
+            if (file == null) {
+                throw new ClassNotFoundException(name);
+            }
+
+            byte[] bytes = file.bytes.toByteArray();
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
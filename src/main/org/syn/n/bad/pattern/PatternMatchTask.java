@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.annotation.EncodedTokens;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates a range of patterns on a fork-join pool. Ranges larger than the threshold are split in two and the
+ * best match of each half is reduced with the ordering of the sequential scan: the highest match count, then the
+ * smallest window and, on equal terms, the pattern that comes first.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class PatternMatchTask extends RecursiveTask<PatternMatchTask.Best> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<PatternMatcher> matchers;
+    private final EncodedTokens textTokens;
+    private final int from;
+    private final int to;
+    private final int start;
+    private final int end;
+    private final int threshold;
+    private final PatternProfiler profiler;
+
+    PatternMatchTask(List<PatternMatcher> matchers, EncodedTokens textTokens, int from, int to, int threshold,
+                     PatternProfiler profiler) {
+        this(matchers, textTokens, from, to, 0, matchers.size(), threshold, profiler);
+    }
+
+    private PatternMatchTask(List<PatternMatcher> matchers, EncodedTokens textTokens, int from, int to, int start,
+                             int end, int threshold, PatternProfiler profiler) {
+        this.matchers = matchers;
+        this.textTokens = textTokens;
+        this.from = from;
+        this.to = to;
+        this.start = start;
+        this.end = end;
+        this.threshold = Math.max(1, threshold);
+        this.profiler = profiler;
+    }
+
+    protected Best compute() {
+        if (end - start <= threshold) {
+            Best best = null;
+            for (int i = start; i < end; i++) {
+                PatternMatcher.PatternMatch pm = match(matchers.get(i));
+                if (pm.getMatchCount() > 0) {
+                    best = select(best, new Best(i, pm));
+                }
+            }
+            return best;
+        }
+
+        int middle = (start + end) >>> 1;
+        PatternMatchTask left = new PatternMatchTask(matchers, textTokens, from, to, start, middle, threshold,
+                                                     profiler);
+        PatternMatchTask right = new PatternMatchTask(matchers, textTokens, from, to, middle, end, threshold,
+                                                      profiler);
+        right.fork();
+        Best leftBest = left.compute();
+        return select(leftBest, right.join());
+    }
+
+    private PatternMatcher.PatternMatch match(PatternMatcher matcher) {
+        if (profiler == null) {
+            return matcher.match(textTokens, from, to);
+        }
+        long start = System.nanoTime();
+        PatternMatcher.PatternMatch result = matcher.match(textTokens, from, to);
+        profiler.recordWalk(matcher, System.nanoTime() - start, result);
+        return result;
+    }
+
+    private static Best select(Best first, Best second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        }
+
+        PatternMatcher.PatternMatch a = first.match;
+        PatternMatcher.PatternMatch b = second.match;
+        if (b.getMatchCount() > a.getMatchCount() ||
+            (b.getMatchCount() == a.getMatchCount() && b.getMatchWindow() < a.getMatchWindow())) {
+            return second;
+        }
+        return first;
+    }
+
+    static final class Best {
+        private final int index;
+        private final PatternMatcher.PatternMatch match;
+
+        private Best(int index, PatternMatcher.PatternMatch match) {
+            this.index = index;
+            this.match = match;
+        }
+
+        int getIndex() {
+            return index;
+        }
+
+        PatternMatcher.PatternMatch getMatch() {
+            return match;
+        }
+    }
+}
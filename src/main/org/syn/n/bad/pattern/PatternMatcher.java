@@ -37,10 +37,13 @@
 
 package org.syn.n.bad.pattern;
 
+import org.syn.n.bad.annotation.EncodedTokens;
 import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.pattern.token.GapMatcher;
 import org.syn.n.bad.pattern.token.TokenMatcher;
 import org.syn.n.bad.pattern.token.TokenMatcherFactory;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -53,8 +56,8 @@ public class PatternMatcher {
     private final Map<String, String> styleLabels = new HashMap<String, String>();
     private String id;
     private String pattern;
-    private Map<String, String> matchedVars = new HashMap<String, String>();
-    private TokenMatcher start;
+    private volatile TokenMatcher start;
+    private volatile PatternBounds bounds;
 
     protected PatternMatcher(String id) {
         this.id = id;
@@ -73,14 +76,31 @@ public class PatternMatcher {
     }
 
     public PatternMatcher(String id, String pattern, String styles, Locale language) {
+        this(id, pattern, styles, language, TokenMatcherFactory.DEFAULT_MIN_GAP, TokenMatcherFactory.DEFAULT_MAX_GAP);
+    }
+
+    /**
+     * A pattern allowing between <code>minGap</code> and <code>maxGap</code> unmatched tokens between two of its
+     * tokens.
+     */
+    public PatternMatcher(String id, String pattern, String styles, Locale language, int minGap, int maxGap) {
         this(id);
         if (pattern != null && pattern.trim().length() > 0) {
-            start = TokenMatcherFactory.factoryPatternMatcher(language, pattern);
+            start = TokenMatcherFactory.factoryPatternMatcher(language, pattern, minGap, maxGap);
         }
         this.pattern = pattern;
         setStylesLabels(styles);
     }
 
+    /**
+     * A pattern whose graph was already built, for instance read from a {@link PatternBundle}.
+     */
+    PatternMatcher(String id, String pattern, TokenMatcher start) {
+        this(id);
+        this.pattern = pattern;
+        this.start = start;
+    }
+
     public String getId() {
         return id;
     }
@@ -113,11 +133,28 @@ public class PatternMatcher {
         }
     }
 
+    TokenMatcher getStart() {
+        return start;
+    }
+
+    PatternBounds getBounds() {
+        PatternBounds result = bounds;
+        if (result == null) {
+            result = PatternBounds.of(start);
+            bounds = result;
+        }
+        return result;
+    }
+
+    void setStart(TokenMatcher start) {
+        this.start = start;
+    }
+
     public boolean isValid() {
         return start != null && !start.getMatcherList().isEmpty();
     }
 
-    private void reportVariable(String label, String value) {
+    private static void reportVariable(Map<String, String> matchedVars, String label, String value) {
         if (matchedVars.containsKey(label)) {
             matchedVars.put(label, matchedVars.get(label) + " " + value);
         } else {
@@ -125,72 +162,112 @@ public class PatternMatcher {
         }
     }
 
-    public Map<String, String> getMatchedVars() {
-        return matchedVars;
+    public PatternMatch match(TextAnnotation tokens, int from, int to) {
+        return match(tokens, null, from, to);
     }
 
-    public PatternMatch match(TextAnnotation tokens, int from, int to) {
-        matchedVars = new HashMap<String, String>();
+    /**
+     * Same walk on a sentence encoded once for all the patterns.
+     */
+    public PatternMatch match(EncodedTokens encoded, int from, int to) {
+        return match(encoded.getTokens(), encoded, from, to);
+    }
+
+    /**
+     * Tests the tokens through the encoded view when there is one, so a single window does not pay for encoding the
+     * whole sentence.
+     */
+    private PatternMatch match(TextAnnotation tokens, EncodedTokens encoded, int from, int to) {
+        Map<String, String> matchedVars = new HashMap<String, String>();
 
         TokenMatcher currentMatcher = start;
 
         boolean matched = true;
         int matchWindow = 0;
         int match = 0;
+        int skipped = 0;
 
         StringBuilder consumptionBuffer = null;
         String consumptionLabel = null;
 
         while (matched && (from + matchWindow < to)) {
             matched = false;
-            for (TokenMatcher matcher : currentMatcher.getMatcherList()) {
-                if (matcher.match(tokens, from + matchWindow)) {
-                    matched = true;
-
-                    if (matcher.hasVariableLabel()) {
-                        if (consumptionLabel == null) {
-                            // start consumption
-                            consumptionLabel = matcher.getVariableLabel();
-                            consumptionBuffer = new StringBuilder(tokens.getToken(from + matchWindow).getText());
-                        } else if (consumptionLabel.equals(matcher.getVariableLabel())) {
-                            // consume more
-                            consumptionBuffer.append(" ").append(tokens.getToken(from + matchWindow).getText());
-                        } else {
-                            // report last variable and consume new one
-                            reportVariable(consumptionLabel, consumptionBuffer.toString());
-                            consumptionLabel = matcher.getVariableLabel();
-                            consumptionBuffer = new StringBuilder(tokens.getToken(from + matchWindow).getText());
-                        }
-                    } else if (consumptionLabel != null) {
-                        // end consumption and report the last one
-                        reportVariable(consumptionLabel, consumptionBuffer.toString());
-                        consumptionLabel = null;
-                        consumptionBuffer = null;
+            TokenMatcher next = null;
+            GapMatcher gap = currentMatcher instanceof GapMatcher ? (GapMatcher) currentMatcher : null;
+            if (gap == null || gap.canExit(skipped)) {
+                for (TokenMatcher child : currentMatcher.getMatcherList()) {
+                    if (encoded != null ? child.match(encoded, from + matchWindow) :
+                        child.match(tokens, from + matchWindow)) {
+                        next = child;
+                        break;
                     }
+                }
+            }
+            if (next == null && gap != null && gap.canSkip(skipped)) {
+                next = gap;
+            }
 
-                    matchWindow++;
-                    if (matcher.getPriority() != TokenMatcher.PRIORITY_SKIP) {
-                        match++;
+            if (next != null) {
+                matched = true;
+
+                if (next.hasVariableLabel()) {
+                    if (consumptionLabel == null) {
+                        // start consumption
+                        consumptionLabel = next.getVariableLabel();
+                        consumptionBuffer = new StringBuilder(tokens.getToken(from + matchWindow).getText());
+                    } else if (consumptionLabel.equals(next.getVariableLabel())) {
+                        // consume more
+                        consumptionBuffer.append(" ").append(tokens.getToken(from + matchWindow).getText());
+                    } else {
+                        // report last variable and consume new one
+                        reportVariable(matchedVars, consumptionLabel, consumptionBuffer.toString());
+                        consumptionLabel = next.getVariableLabel();
+                        consumptionBuffer = new StringBuilder(tokens.getToken(from + matchWindow).getText());
                     }
+                } else if (consumptionLabel != null) {
+                    // end consumption and report the last one
+                    reportVariable(matchedVars, consumptionLabel, consumptionBuffer.toString());
+                    consumptionLabel = null;
+                    consumptionBuffer = null;
+                }
 
-                    currentMatcher = matcher;
-                    break;
+                matchWindow++;
+                if (next.getPriority() != TokenMatcher.PRIORITY_SKIP) {
+                    match++;
                 }
+
+                skipped = next != gap ? 1 : skipped + 1;
+                currentMatcher = next;
             }
         }
 
         if (consumptionLabel != null) {
             // end consumption and report the last one
-            reportVariable(consumptionLabel, consumptionBuffer.toString());
+            reportVariable(matchedVars, consumptionLabel, consumptionBuffer.toString());
         }
 
+        // the walk also read the token that stopped it
+        int examined = matched ? matchWindow : matchWindow + 1;
         if (currentMatcher.isFinal()) {
-            return new PatternMatch(match, matchWindow);
+            return new PatternMatch(match, matchWindow, matchedVars, examined);
         } else {
-            return new PatternMatch(0, 0);
+            return new PatternMatch(0, 0, Collections.<String, String>emptyMap(), examined);
         }
     }
 
+    /**
+     * Explores every branch of the pattern, so an optional token or a variable taken too early does not hide a
+     * longer match: returns the highest count reached on a final node, with the smallest window on a tie. Unlike
+     * {@link #match(TextAnnotation, int, int)}, the walk does not need to stop on the final node.
+     */
+    public PatternMatch matchExhaustive(TextAnnotation tokens, int from, int to) {
+        return matchExhaustive(new EncodedTokens(tokens), from, to);
+    }
+
+    public PatternMatch matchExhaustive(EncodedTokens tokens, int from, int to) {
+        return LockstepWalk.match(start, tokens, from, to);
+    }
+
     public String toString() {
         return pattern;
     }
@@ -198,10 +275,22 @@ public class PatternMatcher {
     public static final class PatternMatch {
         private int matchCount;
         private int matchWindow;
+        private Map<String, String> matchedVars;
+        private int examinedTokens;
 
         public PatternMatch(int matchCount, int matchWindow) {
+            this(matchCount, matchWindow, Collections.<String, String>emptyMap());
+        }
+
+        public PatternMatch(int matchCount, int matchWindow, Map<String, String> matchedVars) {
+            this(matchCount, matchWindow, matchedVars, matchWindow);
+        }
+
+        public PatternMatch(int matchCount, int matchWindow, Map<String, String> matchedVars, int examinedTokens) {
             this.matchCount = matchCount;
             this.matchWindow = matchWindow;
+            this.matchedVars = matchedVars;
+            this.examinedTokens = examinedTokens;
         }
 
         public int getMatchCount() {
@@ -212,6 +301,17 @@ public class PatternMatcher {
             return matchWindow;
         }
 
+        public Map<String, String> getMatchedVars() {
+            return matchedVars;
+        }
+
+        /**
+         * Tokens read by the walk, matched or not.
+         */
+        public int getExaminedTokens() {
+            return examinedTokens;
+        }
+
         public String toString() {
             return "PatternMatch{" +
                    "matchCount=" + matchCount +
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import java.util.Comparator;
+
+/**
+ * The counters of one pattern, read from a {@link PatternProfiler}.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class PatternProfile {
+    public static final Comparator<PatternProfile> BY_TIME = new Comparator<PatternProfile>() {
+        public int compare(PatternProfile o1, PatternProfile o2) {
+            return o1.nanos > o2.nanos ? -1 : (o1.nanos == o2.nanos ? o1.id.compareTo(o2.id) : 1);
+        }
+    };
+    public static final Comparator<PatternProfile> BY_INVOCATIONS = new Comparator<PatternProfile>() {
+        public int compare(PatternProfile o1, PatternProfile o2) {
+            return o1.invocations > o2.invocations ? -1 :
+                   (o1.invocations == o2.invocations ? o1.id.compareTo(o2.id) : 1);
+        }
+    };
+    public static final Comparator<PatternProfile> BY_EXAMINED_TOKENS = new Comparator<PatternProfile>() {
+        public int compare(PatternProfile o1, PatternProfile o2) {
+            return o1.examinedTokens > o2.examinedTokens ? -1 :
+                   (o1.examinedTokens == o2.examinedTokens ? o1.id.compareTo(o2.id) : 1);
+        }
+    };
+
+    private final String id;
+    private final long invocations;
+    private final long nanos;
+    private final long examinedTokens;
+    private final long matches;
+    private final long wins;
+
+    public PatternProfile(String id, long invocations, long nanos, long examinedTokens, long matches, long wins) {
+        this.id = id;
+        this.invocations = invocations;
+        this.nanos = nanos;
+        this.examinedTokens = examinedTokens;
+        this.matches = matches;
+        this.wins = wins;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getInvocations() {
+        return invocations;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public long getExaminedTokens() {
+        return examinedTokens;
+    }
+
+    /**
+     * Walks that reached a final node.
+     */
+    public long getMatches() {
+        return matches;
+    }
+
+    /**
+     * Times the pattern was the best match of a window.
+     */
+    public long getWins() {
+        return wins;
+    }
+
+    public double getHitRate() {
+        return invocations == 0 ? 0 : (double) matches / invocations;
+    }
+
+    public String toString() {
+        return "PatternProfile{" +
+               "id='" + id + '\'' +
+               ", invocations=" + invocations +
+               ", nanos=" + nanos +
+               ", examinedTokens=" + examinedTokens +
+               ", matches=" + matches +
+               ", wins=" + wins +
+               '}';
+    }
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime counters of each pattern, by pattern id: how many times it was walked, the time spent in its walks, the
+ * tokens they examined, how many walks matched and how many times the pattern was the best match. The counters are
+ * striped, so the matching threads rarely contend on them.
+ * <p/>
+ * The profiler is enabled with {@link Matcher#setProfiler(PatternProfiler)}. The compiled mode walks all the patterns
+ * at once and only records the winners.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class PatternProfiler {
+    private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<String, Counters>();
+
+    private Counters getCounters(String id) {
+        Counters result = counters.get(id);
+        if (result == null) {
+            Counters created = new Counters();
+            result = counters.putIfAbsent(id, created);
+            if (result == null) {
+                result = created;
+            }
+        }
+        return result;
+    }
+
+    void recordWalk(PatternMatcher matcher, long nanos, PatternMatcher.PatternMatch match) {
+        Counters result = getCounters(matcher.getId());
+        result.invocations.increment();
+        result.nanos.add(nanos);
+        result.examinedTokens.add(match.getExaminedTokens());
+        if (match.getMatchCount() > 0) {
+            result.matches.increment();
+        }
+    }
+
+    void recordWin(PatternMatcher matcher) {
+        getCounters(matcher.getId()).wins.increment();
+    }
+
+    /**
+     * The counters of every pattern profiled so far, by pattern id.
+     */
+    public Map<String, PatternProfile> snapshot() {
+        Map<String, PatternProfile> result = new HashMap<String, PatternProfile>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            Counters value = entry.getValue();
+            result.put(entry.getKey(), new PatternProfile(entry.getKey(), value.invocations.sum(), value.nanos.sum(),
+                                                          value.examinedTokens.sum(), value.matches.sum(),
+                                                          value.wins.sum()));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the counters and clears them. The walks running meanwhile are counted either in the result or in the
+     * next snapshot.
+     */
+    public Map<String, PatternProfile> snapshotAndReset() {
+        Map<String, PatternProfile> result = new HashMap<String, PatternProfile>();
+        for (Map.Entry<String, Counters> entry : counters.entrySet()) {
+            Counters value = entry.getValue();
+            result.put(entry.getKey(), new PatternProfile(entry.getKey(), value.invocations.sumThenReset(),
+                                                          value.nanos.sumThenReset(),
+                                                          value.examinedTokens.sumThenReset(),
+                                                          value.matches.sumThenReset(), value.wins.sumThenReset()));
+        }
+        return result;
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+
+    /**
+     * The <code>count</code> patterns that spent the most time matching, slowest first.
+     */
+    public List<PatternProfile> top(int count) {
+        return top(count, PatternProfile.BY_TIME);
+    }
+
+    public List<PatternProfile> top(int count, Comparator<PatternProfile> order) {
+        List<PatternProfile> result = new ArrayList<PatternProfile>(snapshot().values());
+        Collections.sort(result, order);
+        return result.size() > count ? new ArrayList<PatternProfile>(result.subList(0, count)) : result;
+    }
+
+    /**
+     * One line per pattern of {@link #top(int)}.
+     */
+    public String report(int count) {
+        StringBuilder result = new StringBuilder();
+        for (PatternProfile profile : top(count)) {
+            result.append(profile).append('\n');
+        }
+        return result.toString();
+    }
+
+    private static final class Counters {
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder examinedTokens = new LongAdder();
+        private final LongAdder matches = new LongAdder();
+        private final LongAdder wins = new LongAdder();
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Immutable list whose copies share their array. Appending writes in place when no other list claimed the next slot
+ * of the array yet, and copies the array otherwise, so a chain of appends costs the same as filling an
+ * <code>ArrayList</code>. A list never reads past its own size, so it does not see the slots written after it.
+ * <p/>
+ * The slots are claimed without any locking, the lists must be appended to by a single thread at a time and
+ * published safely to the others.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+final class SharedList<E> extends AbstractList<E> implements RandomAccess {
+    private static final SharedList<Object> EMPTY = new SharedList<Object>(new Object[0], 0, new int[1]);
+
+    private final Object[] items;
+    private final int size;
+    private final int[] claimed;
+
+    private SharedList(Object[] items, int size, int[] claimed) {
+        this.items = items;
+        this.size = size;
+        this.claimed = claimed;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> SharedList<E> empty() {
+        return (SharedList<E>) EMPTY;
+    }
+
+    static <E> SharedList<E> copyOf(Collection<? extends E> items) {
+        Object[] array = items.toArray();
+        return new SharedList<E>(array, array.length, new int[]{array.length});
+    }
+
+    /**
+     * The list followed by the given item, <code>null</code> being the empty list.
+     */
+    static <E> SharedList<E> append(SharedList<E> list, E item) {
+        if (list == null) {
+            list = empty();
+        }
+        int size = list.size;
+        if (size < list.items.length && list.claimed[0] == size) {
+            list.items[size] = item;
+            list.claimed[0] = size + 1;
+            return new SharedList<E>(list.items, size + 1, list.claimed);
+        }
+
+        Object[] items = Arrays.copyOf(list.items, Math.max(4, size + (size >> 1)));
+        items[size] = item;
+        return new SharedList<E>(items, size + 1, new int[]{size + 1});
+    }
+
+    /**
+     * A copy without the items of the given set, or <code>null</code> if nothing is left.
+     */
+    SharedList<E> withoutAll(Set<?> removed) {
+        Object[] result = new Object[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed.contains(items[i])) {
+                result[count++] = items[i];
+            }
+        }
+        return count == 0 ? null : new SharedList<E>(result, count, new int[]{count});
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return (E) items[index];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Chooses, according to an {@link OverlapPolicy}, among the matches found at every position of a sentence. The
+ * spans are expected in the order they were found: by start, then by pattern. The result keeps that order.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+final class SpanResolver {
+    private static final Comparator<MatchSpan> BY_LENGTH = new Comparator<MatchSpan>() {
+        public int compare(MatchSpan o1, MatchSpan o2) {
+            if (o1.getMatchedTokens() != o2.getMatchedTokens()) {
+                return o2.getMatchedTokens() - o1.getMatchedTokens();
+            }
+            return o2.getMatchCount() - o1.getMatchCount();
+        }
+    };
+
+    private static final Comparator<MatchSpan> BY_END = new Comparator<MatchSpan>() {
+        public int compare(MatchSpan o1, MatchSpan o2) {
+            return o1.getEnd() - o2.getEnd();
+        }
+    };
+
+    private SpanResolver() {
+    }
+
+    static List<MatchSpan> resolve(List<MatchSpan> spans, OverlapPolicy policy) {
+        switch (policy) {
+            case GREEDY_LONGEST:
+                return greedyLongest(spans);
+            case WEIGHTED_INTERVAL:
+                return weightedInterval(spans);
+            default:
+                return Collections.unmodifiableList(spans);
+        }
+    }
+
+    private static List<MatchSpan> greedyLongest(List<MatchSpan> spans) {
+        // stable sort, the earliest span wins a tie
+        List<MatchSpan> sorted = new ArrayList<MatchSpan>(spans);
+        Collections.sort(sorted, BY_LENGTH);
+
+        int size = 0;
+        for (MatchSpan span : spans) {
+            size = Math.max(size, span.getEnd());
+        }
+
+        boolean[] taken = new boolean[size];
+        List<MatchSpan> result = new ArrayList<MatchSpan>();
+        for (MatchSpan span : sorted) {
+            if (isFree(taken, span)) {
+                Arrays.fill(taken, span.getStart(), span.getEnd(), true);
+                result.add(span);
+            }
+        }
+        return sortByStart(result);
+    }
+
+    private static boolean isFree(boolean[] taken, MatchSpan span) {
+        for (int i = span.getStart(); i < span.getEnd(); i++) {
+            if (taken[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<MatchSpan> weightedInterval(List<MatchSpan> spans) {
+        MatchSpan[] sorted = spans.toArray(new MatchSpan[spans.size()]);
+        Arrays.sort(sorted, BY_END);
+
+        // best[j]: highest total count using the first j spans, by end
+        int n = sorted.length;
+        int[] previous = new int[n];
+        long[] best = new long[n + 1];
+        for (int j = 0; j < n; j++) {
+            previous[j] = lastEndingBefore(sorted, j, sorted[j].getStart());
+            best[j + 1] = Math.max(best[j], best[previous[j]] + sorted[j].getMatchCount());
+        }
+
+        List<MatchSpan> result = new ArrayList<MatchSpan>();
+        int j = n;
+        while (j > 0) {
+            if (best[j] != best[j - 1]) {
+                result.add(sorted[j - 1]);
+                j = previous[j - 1];
+            } else {
+                j--;
+            }
+        }
+        return sortByStart(result);
+    }
+
+    /**
+     * The number of spans among the first <code>limit</code> that end at or before <code>position</code>.
+     */
+    private static int lastEndingBefore(MatchSpan[] sorted, int limit, int position) {
+        int low = 0;
+        int high = limit;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle].getEnd() <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static List<MatchSpan> sortByStart(List<MatchSpan> spans) {
+        Collections.sort(spans, new Comparator<MatchSpan>() {
+            public int compare(MatchSpan o1, MatchSpan o2) {
+                return o1.getStart() - o2.getStart();
+            }
+        });
+        return Collections.unmodifiableList(spans);
+    }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.pattern.token.SynMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.*;
+
+/**
+ * Shares the token matchers of the patterns registered in a {@link Matcher}. Two nodes are the same when they test
+ * the same thing, have the same priority, variable and final flag, and lead to the same nodes in the same order.
+ * The graph of a new pattern is rebuilt, from its last nodes back to its start, out of the nodes already known and
+ * copies of the others, so identical patterns and identical tails are stored once. The nodes of the pattern are
+ * never changed, the pattern only gets the start of the rebuilt graph, so a pattern may be registered in several
+ * matchers and walked while it is.
+ * <p/>
+ * Only structurally identical sub-graphs are shared: merging the first nodes of two patterns that continue
+ * differently would change the successor a greedy walk picks.
+ * <p/>
+ * The gain is memory only: the walks visit as many nodes as before, and the automaton of the compiled mode still
+ * numbers the nodes of each pattern apart.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+class TokenMatcherPool {
+    private static final int SELF = -1;
+
+    private final Map<String, Shared> nodes = new HashMap<String, Shared>();
+    private final Map<TokenMatcher, String> signatures = new IdentityHashMap<TokenMatcher, String>();
+    private final Map<PatternMatcher, LinkedList<Set<String>>> patterns =
+            new IdentityHashMap<PatternMatcher, LinkedList<Set<String>>>();
+    private int sequence = 0;
+
+    /**
+     * Rebuilds the graph of the pattern out of the shared nodes. A pattern whose graph loops through more than one
+     * node is kept as it is.
+     */
+    synchronized void add(PatternMatcher matcher) {
+        List<TokenMatcher> order = new ArrayList<TokenMatcher>();
+        if (!postOrder(matcher.getStart(), order, Collections.newSetFromMap(new IdentityHashMap<TokenMatcher,
+                Boolean>()), Collections.newSetFromMap(new IdentityHashMap<TokenMatcher, Boolean>()))) {
+            return;
+        }
+
+        Map<TokenMatcher, TokenMatcher> replaced = new IdentityHashMap<TokenMatcher, TokenMatcher>();
+        Set<String> used = new HashSet<String>();
+        for (TokenMatcher node : order) {
+            List<TokenMatcher> children = new ArrayList<TokenMatcher>(node.getMatcherList().size());
+            for (TokenMatcher child : node.getMatcherList()) {
+                children.add(child == node ? null : replaced.get(child));
+            }
+
+            String signature = signature(node, children);
+            Shared entry = nodes.get(signature);
+            if (entry == null) {
+                TokenMatcher copy = node.copy();
+                for (TokenMatcher child : children) {
+                    copy.addNext(child == null ? copy : child);
+                }
+                entry = new Shared(copy, sequence++);
+                nodes.put(signature, entry);
+                signatures.put(copy, signature);
+            }
+            if (used.add(signature)) {
+                entry.references++;
+            }
+            replaced.put(node, entry.node);
+        }
+
+        matcher.setStart(replaced.get(matcher.getStart()));
+        LinkedList<Set<String>> list = patterns.get(matcher);
+        if (list == null) {
+            list = new LinkedList<Set<String>>();
+            patterns.put(matcher, list);
+        }
+        list.add(used);
+    }
+
+    /**
+     * Releases the nodes used by the pattern and no longer used by any other one.
+     */
+    synchronized void remove(PatternMatcher matcher) {
+        LinkedList<Set<String>> list = patterns.get(matcher);
+        if (list == null) {
+            return;
+        }
+        Set<String> used = list.removeFirst();
+        if (list.isEmpty()) {
+            patterns.remove(matcher);
+        }
+        for (String signature : used) {
+            Shared entry = nodes.get(signature);
+            if (--entry.references == 0) {
+                nodes.remove(signature);
+                signatures.remove(entry.node);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * The signature of the node leading to the given shared nodes, <code>null</code> standing for the node itself.
+     */
+    private String signature(TokenMatcher node, List<TokenMatcher> children) {
+        StringBuilder result = new StringBuilder();
+        result.append(node.getClass().getName()).append(':').append(node.getPriority())
+              .append(node.isFinal() ? 'F' : 'N');
+        if (node instanceof SynMatcher) {
+            SynMatcher syn = (SynMatcher) node;
+            result.append(':').append(syn.getLanguage()).append(':').append(new TreeSet<String>(syn.getSynsets()));
+        }
+        String text = node.toString();
+        result.append(':').append(text.length()).append(':').append(text);
+
+        for (TokenMatcher child : children) {
+            result.append(',').append(child == null ? SELF : nodes.get(signatures.get(child)).id);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Lists the nodes so that every node comes after its successors, ignoring the loops of a node on itself.
+     * Returns <code>false</code> on any other loop.
+     */
+    private static boolean postOrder(TokenMatcher node, List<TokenMatcher> order, Set<TokenMatcher> visited,
+                                     Set<TokenMatcher> path) {
+        if (visited.contains(node)) {
+            return !path.contains(node);
+        }
+        visited.add(node);
+        path.add(node);
+        for (TokenMatcher child : node.getMatcherList()) {
+            if (child != node && !postOrder(child, order, visited, path)) {
+                return false;
+            }
+        }
+        path.remove(node);
+        order.add(node);
+        return true;
+    }
+
+    private static final class Shared {
+        private final TokenMatcher node;
+        private final int id;
+        private int references;
+
+        private Shared(TokenMatcher node, int id) {
+            this.node = node;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.syn.n.bad.pattern.token.GapMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A place in the graph of a pattern: a node and, for a {@link GapMatcher}, the number of tokens skipped since the
+ * walk entered it. Used as a key by the walks that follow several branches at once.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+final class WalkStep {
+    private final TokenMatcher node;
+    private final int skipped;
+
+    private WalkStep(TokenMatcher node, int skipped) {
+        this.node = node;
+        this.skipped = skipped;
+    }
+
+    static WalkStep of(TokenMatcher node) {
+        return new WalkStep(node, 0);
+    }
+
+    TokenMatcher getNode() {
+        return node;
+    }
+
+    /**
+     * The steps that may follow this one, in the order a greedy walk tries them. The node of each step still has
+     * to accept the token, staying in a gap always does.
+     */
+    List<WalkStep> getNext() {
+        List<WalkStep> result = new ArrayList<WalkStep>(node.getMatcherList().size() + 1);
+        GapMatcher gap = node instanceof GapMatcher ? (GapMatcher) node : null;
+        if (gap == null || gap.canExit(skipped)) {
+            for (TokenMatcher child : node.getMatcherList()) {
+                result.add(new WalkStep(child, child instanceof GapMatcher ? 1 : 0));
+            }
+        }
+        if (gap != null && gap.canSkip(skipped)) {
+            result.add(new WalkStep(gap, skipped + 1));
+        }
+        return result;
+    }
+
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WalkStep)) {
+            return false;
+        }
+        WalkStep other = (WalkStep) o;
+        return node == other.node && skipped == other.skipped;
+    }
+
+    public int hashCode() {
+        return 31 * System.identityHashCode(node) + skipped;
+    }
+}
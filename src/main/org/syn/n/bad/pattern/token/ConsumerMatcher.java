@@ -37,6 +37,7 @@
 
 package org.syn.n.bad.pattern.token;
 
+import org.syn.n.bad.annotation.EncodedTokens;
 import org.syn.n.bad.annotation.TextAnnotation;
 
 /**
@@ -56,4 +57,8 @@ public class ConsumerMatcher extends TokenMatcher {
     public boolean match(TextAnnotation tokens, int index) {
         return true;
     }
+
+    public boolean match(EncodedTokens tokens, int index) {
+        return true;
+    }
 }
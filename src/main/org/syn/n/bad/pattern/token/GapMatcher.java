@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern.token;
+
+import org.syn.n.bad.annotation.EncodedTokens;
+import org.syn.n.bad.annotation.TextAnnotation;
+
+/**
+ * Skips up to <code>max</code> tokens between two tokens of a pattern. A single node stands for the whole gap: the
+ * walks count the tokens skipped since they entered it, may leave it through its successors once at least
+ * <code>min</code> tokens were skipped, and stay in it while fewer than <code>max</code> were.
+ *
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 1, 10/18/26
+ */
+public class GapMatcher extends TokenMatcher {
+    private final int min;
+    private final int max;
+
+    public GapMatcher(int min, int max) {
+        super("{" + min + "," + max + "}", false);
+        if (min < 0 || max < 1 || min > max) {
+            throw new IllegalArgumentException("Invalid gap width: " + min + " to " + max);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    protected void setupPriority(boolean isMandatory) {
+        priority = PRIORITY_SKIP;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * Whether a walk that skipped <code>skipped</code> tokens in this gap may go on to its successors.
+     */
+    public boolean canExit(int skipped) {
+        return skipped >= min;
+    }
+
+    /**
+     * Whether a walk that skipped <code>skipped</code> tokens in this gap may skip one more.
+     */
+    public boolean canSkip(int skipped) {
+        return skipped < max;
+    }
+
+    public boolean match(TextAnnotation tokens, int index) {
+        return true;
+    }
+
+    public boolean match(EncodedTokens tokens, int index) {
+        return true;
+    }
+}
@@ -39,10 +39,12 @@ package org.syn.n.bad.pattern.token;
 
 import org.syn.n.bad.annotation.Annotation;
 import org.syn.n.bad.annotation.AnnotationToken;
+import org.syn.n.bad.annotation.EncodedTokens;
 import org.syn.n.bad.annotation.TextAnnotation;
 import org.syn.n.bad.annotation.TextAnnotationConstants;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Set;
 
 /**
@@ -51,11 +53,13 @@ import java.util.Set;
  */
 public class POSMatcher extends TokenMatcher {
     private Set<Byte> posLabels;
+    private long[] posMask;
 
     public POSMatcher(String pattern, boolean isMandatory) {
         super("<" + pattern + ">", isMandatory);
         pattern = setupVariables(pattern);
         posLabels = TextAnnotationConstants.getGenericPOSLabel(pattern);
+        posMask = TextAnnotationConstants.createPOSMask(posLabels);
     }
 
     private String setupVariables(String pattern) {
@@ -73,8 +77,12 @@ public class POSMatcher extends TokenMatcher {
         return pattern;
     }
 
+    public Set<Byte> getPOSLabels() {
+        return Collections.unmodifiableSet(posLabels);
+    }
+
     public boolean match(TextAnnotation tokens, int index) {
-        if (posLabels.isEmpty()) {
+        if (TextAnnotationConstants.isEmptyPOSMask(posMask)) {
             return false;
         }
 
@@ -89,11 +97,15 @@ public class POSMatcher extends TokenMatcher {
         }
 
         for (AnnotationToken token : annotationTokenCollection) {
-            if (posLabels.contains(token.getAnnotationLabel())) {
+            if (TextAnnotationConstants.containsPOSLabel(posMask, token.getAnnotationLabel())) {
                 return true;
             }
         }
 
         return false;
     }
+
+    public boolean match(EncodedTokens tokens, int index) {
+        return tokens.hasPOS(index, posMask);
+    }
 }
@@ -37,18 +37,30 @@
 
 package org.syn.n.bad.pattern.token;
 
+import org.syn.n.bad.annotation.EncodedTokens;
 import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TokenSymbols;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 1/5/13
  */
 public class SimpleTokenMatcher extends TokenMatcher {
+    private final int symbol;
+
     public SimpleTokenMatcher(String pattern, boolean isMandatory) {
         super(pattern, isMandatory);
+        symbol = TokenSymbols.intern(pattern);
     }
 
     public boolean match(TextAnnotation tokens, int index) {
         return pattern.equals(tokens.getToken(index).getText());
     }
+
+    public boolean match(EncodedTokens tokens, int index) {
+        if (symbol == TokenSymbols.UNKNOWN) {
+            return match(tokens.getTokens(), index);
+        }
+        return tokens.getSymbol(index) == symbol;
+    }
 }
@@ -39,6 +39,7 @@ package org.syn.n.bad.pattern.token;
 
 import org.syn.n.bad.annotation.Annotation;
 import org.syn.n.bad.annotation.AnnotationToken;
+import org.syn.n.bad.annotation.EncodedTokens;
 import org.syn.n.bad.annotation.TextAnnotation;
 import org.syn.n.bad.annotation.TextAnnotationConstants;
 import org.syn.n.bad.dictionary.Dictionary;
@@ -46,6 +47,7 @@ import org.syn.n.bad.dictionary.DictionaryException;
 import org.syn.n.bad.dictionary.POS;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * @author Ovidiu Serban, ovidiu@roboslang.org
@@ -62,17 +64,7 @@ public class SynMatcher extends TokenMatcher {
     }
 
     private static final POS[] noRestrictions = new POS[]{POS.ADVERB, POS.ADJECTIVE, POS.VERB, POS.NOUN};
-    private static Dictionary dictionary;
-
-    static {
-        try {
-            dictionary = Dictionary.getInstance();
-        } catch (DictionaryException e) {
-            throw new IllegalArgumentException("Invalid default dictionary setup provided. Please check it and try " +
-                                               "again ...",
-                                               e);
-        }
-    }
+    private static volatile Dictionary dictionary;
 
     private Set<String> synsets;
     private Locale language;
@@ -86,6 +78,46 @@ public class SynMatcher extends TokenMatcher {
         synsets = createSynset(language, pattern, restrictions.getValue());
     }
 
+    /**
+     * Rebuilds a matcher whose synsets were already resolved, without querying the dictionary.
+     */
+    public SynMatcher(Locale language, String pattern, boolean isMandatory, Set<String> synsets) {
+        super("[" + pattern + "]", isMandatory);
+        this.language = language;
+        setupVariables(pattern);
+        this.synsets = new HashSet<String>(synsets);
+    }
+
+    /**
+     * The dictionary is loaded the first time a synonym is resolved, so that patterns without synonyms, or read
+     * from a bundle, never wait for it.
+     */
+    public static Dictionary getDictionary() {
+        Dictionary result = dictionary;
+        if (result == null) {
+            synchronized (SynMatcher.class) {
+                result = dictionary;
+                if (result == null) {
+                    try {
+                        result = Dictionary.getInstance();
+                    } catch (DictionaryException e) {
+                        throw new IllegalArgumentException("Invalid default dictionary setup provided. Please " +
+                                                           "check it and try again ...", e);
+                    }
+                    dictionary = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the dictionary used by all the synonym matchers.
+     */
+    public static void setDictionary(Dictionary dictionary) {
+        SynMatcher.dictionary = dictionary;
+    }
+
     private Map.Entry<String, POS[]> setupRestrictions(String pattern) {
         if (pattern.contains("|")) {
             String[] parts = pattern.split("[|]");
@@ -114,9 +146,13 @@ public class SynMatcher extends TokenMatcher {
         return pattern;
     }
 
+    public Locale getLanguage() {
+        return language;
+    }
+
     private Set<String> createSynset(Locale language, String word, POS... pos) {
         try {
-            return dictionary.getWord(language, word, pos).getSynsetIds();
+            return getDictionary().getWord(language, word, pos).getSynsetIds();
         } catch (DictionaryException e) {
             //-- ignore it
             return Collections.emptySet();
@@ -145,11 +181,11 @@ public class SynMatcher extends TokenMatcher {
         return result;
     }
 
-    public boolean match(TextAnnotation tokens, int index) {
-        if (synsets == null || synsets.isEmpty()) {
-            return false;
-        }
+    public Set<String> getSynsets() {
+        return synsets == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(synsets);
+    }
 
+    public Set<String> getTokenSynsets(TextAnnotation tokens, int index) {
         POS[] restrictions;
         Annotation annotation = tokens.getAnnotation(TextAnnotationConstants.getLevel(TextAnnotationConstants.POS));
         if (annotation == null) {
@@ -164,9 +200,38 @@ public class SynMatcher extends TokenMatcher {
         }
 
         String token = tokens.getToken(index).getText();
-        Set<String> tokenSynset = createSynset(language, token, restrictions);
+        return createSynset(language, token, restrictions);
+    }
+
+    public boolean match(TextAnnotation tokens, int index) {
+        if (synsets == null || synsets.isEmpty()) {
+            return false;
+        }
+
+        Set<String> tokenSynset = getTokenSynsets(tokens, index);
         tokenSynset.retainAll(synsets);
 
         return !tokenSynset.isEmpty();
     }
+
+    public boolean match(EncodedTokens tokens, int index) {
+        if (synsets == null || synsets.isEmpty()) {
+            return false;
+        }
+
+        // the dictionary is queried once per token and language, whatever the number of synonym matchers
+        AtomicReferenceArray<Set<String>> cache = tokens.getSynsetCache(language);
+        Set<String> tokenSynset = cache.get(index);
+        if (tokenSynset == null) {
+            tokenSynset = getTokenSynsets(tokens.getTokens(), index);
+            cache.set(index, tokenSynset);
+        }
+
+        for (String synset : tokenSynset) {
+            if (synsets.contains(synset)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
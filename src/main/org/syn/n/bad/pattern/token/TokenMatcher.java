@@ -37,6 +37,7 @@
 
 package org.syn.n.bad.pattern.token;
 
+import org.syn.n.bad.annotation.EncodedTokens;
 import org.syn.n.bad.annotation.TextAnnotation;
 
 import java.util.Collections;
@@ -47,7 +48,7 @@ import java.util.List;
  * @author Ovidiu Serban, ovidiu@roboslang.org
  * @version 1, 1/5/13
  */
-public abstract class TokenMatcher implements Comparable<TokenMatcher> {
+public abstract class TokenMatcher implements Comparable<TokenMatcher>, Cloneable {
     public static final int PRIORITY_SKIP = 0;
     public static final int PRIORITY_CONSUME = 1;
     public static final int PRIORITY_MANDATORY = 2;
@@ -114,10 +115,30 @@ public abstract class TokenMatcher implements Comparable<TokenMatcher> {
         return matcherList;
     }
 
+    /**
+     * A node testing the same thing as this one, with the same flags and variable, but no successors.
+     */
+    public TokenMatcher copy() {
+        try {
+            TokenMatcher result = (TokenMatcher) super.clone();
+            result.matcherList = new LinkedList<TokenMatcher>();
+            return result;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     public int compareTo(TokenMatcher o) {
         int cmp = o.priority - priority;
         return cmp != 0 ? cmp : o.pattern.compareTo(pattern);
     }
 
     public abstract boolean match(TextAnnotation tokens, int index);
+
+    /**
+     * Same test on the encoded view of the sentence. Matchers that do not override it test the tokens themselves.
+     */
+    public boolean match(EncodedTokens tokens, int index) {
+        return match(tokens.getTokens(), index);
+    }
 }
\ No newline at end of file
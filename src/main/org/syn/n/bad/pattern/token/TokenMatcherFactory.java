@@ -37,8 +37,6 @@
 
 package org.syn.n.bad.pattern.token;
 
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Locale;
 
 /**
@@ -46,6 +44,9 @@ import java.util.Locale;
  * @version 1, 1/5/13
  */
 public class TokenMatcherFactory {
+    public static final int DEFAULT_MIN_GAP = 0;
+    public static final int DEFAULT_MAX_GAP = 2;
+
     private static class TokenItem {
         private boolean mandatory = true;
         private boolean multiplier = true;
@@ -59,6 +60,18 @@ public class TokenMatcherFactory {
     }
 
     public static TokenMatcher factoryPatternMatcher(Locale language, String pattern) {
+        return factoryPatternMatcher(language, pattern, DEFAULT_MIN_GAP, DEFAULT_MAX_GAP);
+    }
+
+    /**
+     * Builds the graph of a pattern allowing between <code>minGap</code> and <code>maxGap</code> unmatched tokens
+     * between two consecutive tokens of the pattern.
+     */
+    public static TokenMatcher factoryPatternMatcher(Locale language, String pattern, int minGap, int maxGap) {
+        if (minGap < 0 || minGap > maxGap) {
+            throw new IllegalArgumentException("Invalid gap width: " + minGap + " to " + maxGap);
+        }
+
         String[] split = pattern.split(" ");
         TokenMatcher start = new SkipMatcher();
         TokenMatcher last = start;
@@ -67,17 +80,21 @@ public class TokenMatcherFactory {
         for (String token : split) {
             TokenItem tokenItem = factoryTokenItem(token);
             TokenMatcher currentToken = factoryTokenMatcher(language, tokenItem);
-            last.addNext(currentToken);
-
-            if (last != start) {
-                setupSkips(last, currentToken);
+            if (last == start) {
+                last.addNext(currentToken);
+            } else {
+                setupGap(last, currentToken, minGap, maxGap);
             }
 
             if (tokenItem.multiplier) {
                 currentToken.addNext(currentToken);
             }
             if (last != lastMandatory) {
-                lastMandatory.addNext(currentToken);
+                if (lastMandatory == start || minGap == 0) {
+                    lastMandatory.addNext(currentToken);
+                } else {
+                    setupGap(lastMandatory, currentToken, minGap, maxGap);
+                }
             }
 
             if (tokenItem.mandatory) {
@@ -91,27 +108,15 @@ public class TokenMatcherFactory {
         return start;
     }
 
-    private static void setupSkips(TokenMatcher last, TokenMatcher current) {
-        List<TokenMatcher> skips = setupSkips(last);
-        if (skips != null) {
-            for (TokenMatcher skip : skips) {
-                skip.addNext(current);
-            }
+    private static void setupGap(TokenMatcher last, TokenMatcher current, int minGap, int maxGap) {
+        if (minGap == 0) {
+            last.addNext(current);
+        }
+        if (maxGap > 0) {
+            TokenMatcher gap = new GapMatcher(minGap, maxGap);
+            last.addNext(gap);
+            gap.addNext(current);
         }
-    }
-
-    private static List<TokenMatcher> setupSkips(TokenMatcher tokenMatcher) {
-        List<TokenMatcher> skips = new LinkedList<TokenMatcher>();
-
-        TokenMatcher skip1 = new SkipMatcher();
-        tokenMatcher.addNext(skip1);
-        skips.add(skip1);
-
-        TokenMatcher skip2 = new SkipMatcher();
-        skip1.addNext(skip2);
-        skips.add(skip2);
-
-        return skips;
     }
 
     private static void sortToken(TokenMatcher tokenMatcher) {
@@ -124,7 +129,12 @@ public class TokenMatcherFactory {
     }
 
     private static void markFinal(TokenMatcher matcher) {
-        if (matcher.getPriority() != TokenMatcher.PRIORITY_SKIP) {
+        if (matcher instanceof GapMatcher) {
+            // a walk cannot end inside a gap, but the optional tokens after it are final
+            for (TokenMatcher child : matcher.getMatcherList()) {
+                markFinal(child);
+            }
+        } else if (matcher.getPriority() != TokenMatcher.PRIORITY_SKIP) {
             matcher.setFinal(true);
             for (TokenMatcher child : matcher.getMatcherList()) {
                 if (child != matcher) {
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+package org.syn.n.bad.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class LatencyMetricsTest {
+    private static final long SECOND = 1000000000L;
+
+    @Test()
+    public void testCallsPerSecond() {
+        LatencyMetrics metrics = new LatencyMetrics();
+        long start = System.nanoTime();
+        for (int second = 0; second < 30; second++) {
+            for (int i = 0; i < 5; i++) {
+                metrics.record(1000, false, start + second * SECOND);
+            }
+        }
+        assertEquals(150, metrics.getCount());
+        // the rate follows the last seconds, not the average since the registration
+        assertEquals(5, metrics.getCallsPerSecond(start + 30 * SECOND), 1e-9);
+        assertEquals(2.5, metrics.getCallsPerSecond(start + 35 * SECOND), 1e-9);
+        assertEquals(0, metrics.getCallsPerSecond(start + 100 * SECOND), 1e-9);
+
+        for (int i = 0; i < 20; i++) {
+            metrics.record(1000, false, start + 100 * SECOND);
+        }
+        // the current second is still being counted
+        assertEquals(0, metrics.getCallsPerSecond(start + 100 * SECOND), 1e-9);
+        assertEquals(2, metrics.getCallsPerSecond(start + 101 * SECOND), 1e-9);
+
+        metrics.reset();
+        assertEquals(0, metrics.getCallsPerSecond(start + 101 * SECOND), 1e-9);
+    }
+
+    @Test()
+    public void testFirstSeconds() {
+        LatencyMetrics metrics = new LatencyMetrics();
+        long start = System.nanoTime();
+        assertEquals(0, metrics.getCallsPerSecond(start), 1e-9);
+        for (int second = 0; second < 3; second++) {
+            for (int i = 0; i < 5; i++) {
+                metrics.record(1000, false, start + second * SECOND);
+            }
+        }
+        // only the seconds since the registration count
+        assertEquals(5, metrics.getCallsPerSecond(start + 3 * SECOND), 1e-9);
+
+        // and since the reset, even in the middle of a second
+        metrics.reset(start + 100 * SECOND + SECOND / 2);
+        for (int i = 0; i < 10; i++) {
+            metrics.record(1000, false, start + 100 * SECOND + SECOND / 2);
+        }
+        assertEquals(20, metrics.getCallsPerSecond(start + 101 * SECOND), 0.1);
+        assertEquals(10 / 3.5, metrics.getCallsPerSecond(start + 104 * SECOND), 0.01);
+    }
+
+    @Test()
+    public void testHits() {
+        LatencyMetrics metrics = new LatencyMetrics();
+        metrics.record(1000, true);
+        metrics.record(1000, false);
+        metrics.record(1000);
+        metrics.recordError();
+        assertEquals(3, metrics.getCount());
+        assertEquals(1, metrics.getHitCount());
+        assertEquals(1, metrics.getErrorCount());
+
+        metrics.reset();
+        assertEquals(0, metrics.getCount());
+        assertEquals(0, metrics.getHitCount());
+        assertEquals(0, metrics.getErrorCount());
+    }
+}
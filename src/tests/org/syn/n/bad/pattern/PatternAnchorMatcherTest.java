@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternAnchorMatcherTest {
+    private PatternMatcher literal;
+    private PatternMatcher optional;
+    private PatternMatcher pos;
+    private PatternMatcher consumer;
+    private AnchorIndex index;
+
+    @Before()
+    public void setup() {
+        literal = new PatternMatcher("1", "xxx yyy zzz");
+        optional = new PatternMatcher("2", "xxx aaa? zzz");
+        pos = new PatternMatcher("3", "the <NN*>");
+        consumer = new PatternMatcher("4", "$name? $any");
+
+        index = new AnchorIndex();
+        index.add(literal);
+        index.add(optional);
+        index.add(pos);
+        index.add(consumer);
+    }
+
+    @Test()
+    public void testLiteralAnchors() {
+        TextAnnotation tokens = tokenize("xxx yyy zzz");
+        assertEquals(Arrays.asList(literal, optional, consumer), index.candidates(tokens, 0, tokens.size()));
+
+        tokens = tokenize("xxx zzz");
+        assertEquals(Arrays.asList(optional, consumer), index.candidates(tokens, 0, tokens.size()));
+
+        tokens = tokenize("xxx yyy zzz");
+        assertEquals(Arrays.asList(consumer), index.candidates(tokens, 1, tokens.size()));
+    }
+
+    @Test()
+    public void testPOSAnchors() {
+        TextAnnotation tokens = tokenize("the car", "DT", "NN");
+        assertEquals(Arrays.asList(pos, consumer), index.candidates(tokens, 0, tokens.size()));
+
+        tokens = tokenize("the cars", "DT", "NNS");
+        assertEquals(Arrays.asList(pos, consumer), index.candidates(tokens, 0, tokens.size()));
+
+        tokens = tokenize("the red", "DT", "JJ");
+        assertEquals(Arrays.asList(consumer), index.candidates(tokens, 0, tokens.size()));
+
+        tokens = tokenize("the car");
+        assertEquals(Arrays.asList(consumer), index.candidates(tokens, 0, tokens.size()));
+    }
+
+    @Test()
+    public void testRemove() {
+        index.remove(literal);
+        index.remove(consumer);
+
+        TextAnnotation tokens = tokenize("xxx yyy zzz");
+        List<PatternMatcher> candidates = index.candidates(tokens, 0, tokens.size());
+        assertEquals(Arrays.asList(optional), candidates);
+
+        index.add(literal);
+        candidates = index.candidates(tokens, 0, tokens.size());
+        assertEquals(Arrays.asList(optional, literal), candidates);
+    }
+
+    @Test()
+    public void testCopies() {
+        PatternMatcher first = new PatternMatcher("5", "xxx bbb");
+        PatternMatcher second = new PatternMatcher("6", "xxx ccc");
+
+        // both copies append to the posting lists they share with the original
+        AnchorIndex left = new AnchorIndex(index);
+        left.add(first);
+        AnchorIndex right = new AnchorIndex(index);
+        right.add(second);
+        right.remove(optional);
+
+        TextAnnotation tokens = tokenize("xxx yyy zzz bbb ccc");
+        assertEquals(Arrays.asList(literal, optional, consumer), index.candidates(tokens, 0, tokens.size()));
+        assertEquals(Arrays.asList(literal, optional, consumer, first), left.candidates(tokens, 0, tokens.size()));
+        assertEquals(Arrays.asList(literal, consumer, second), right.candidates(tokens, 0, tokens.size()));
+    }
+
+    @Test()
+    public void testMatcher() {
+        Matcher matcher = new Matcher();
+        matcher.addMatcher(literal);
+        matcher.addMatcher(optional);
+        matcher.addMatcher(pos);
+
+        TextAnnotation tokens = tokenize("aaa the car xxx yyy zzz", "NN", "DT", "NN", "NN", "NN", "NN");
+        assertEquals(Arrays.asList("3", "1"), matcher.match(tokens).getTemplateIDs());
+
+        tokens = tokenize("xxx aaa zzz");
+        assertEquals("2", matcher.match(tokens, 0, tokens.size()).getTemplateID());
+        assertTrue(matcher.match(tokenize("the car")).isEmpty());
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.Annotation;
+import org.syn.n.bad.annotation.AnnotationToken;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternAnnotationIndexMatcherTest {
+    private static List<Byte> labels(Annotation annotation, int index) {
+        List<Byte> result = new ArrayList<Byte>();
+        for (AnnotationToken token : annotation.getTokens(index)) {
+            result.add(token.getAnnotationLabel());
+        }
+        return result;
+    }
+
+    private static List<Byte> list(int... labels) {
+        List<Byte> result = new ArrayList<Byte>();
+        for (int label : labels) {
+            result.add((byte) label);
+        }
+        return result;
+    }
+
+    @Test()
+    public void testInsertionOrder() {
+        Annotation annotation = new Annotation();
+        annotation.addToken(new AnnotationToken(2, (byte) 5));
+        annotation.addToken(new AnnotationToken(0, (byte) 1));
+        annotation.addToken(new AnnotationToken(2, (byte) 3));
+        annotation.addToken(new AnnotationToken(0, (byte) 7));
+
+        assertEquals(list(1, 7), labels(annotation, 0));
+        assertTrue(annotation.getTokens(1).isEmpty());
+        assertEquals(list(5, 3), labels(annotation, 2));
+        assertTrue(annotation.getTokens(3).isEmpty());
+        assertTrue(annotation.getTokens(-1).isEmpty());
+        assertSame(annotation.getTokens(2), annotation.getTokens(2));
+    }
+
+    @Test()
+    public void testChanges() {
+        Annotation annotation = new Annotation();
+        annotation.addToken(new AnnotationToken(0, (byte) 1));
+        assertEquals(list(1), labels(annotation, 0));
+
+        annotation.addToken(new AnnotationToken(1, (byte) 2));
+        assertEquals(list(2), labels(annotation, 1));
+
+        annotation.getTokens().set(0, new AnnotationToken(1, (byte) 4));
+        assertTrue(annotation.getTokens(0).isEmpty());
+        assertEquals(list(4, 2), labels(annotation, 1));
+
+        for (Iterator<AnnotationToken> iterator = annotation.getTokens().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getAnnotationLabel() == 4) {
+                iterator.remove();
+            }
+        }
+        assertEquals(list(2), labels(annotation, 1));
+
+        List<AnnotationToken> replacement = new ArrayList<AnnotationToken>();
+        replacement.add(new AnnotationToken(0, (byte) 9));
+        annotation.setTokens(replacement);
+        assertEquals(list(9), labels(annotation, 0));
+        assertTrue(annotation.getTokens(1).isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternAsyncMatcherTest {
+    private Matcher matcher;
+
+    @Before()
+    public void setup() {
+        matcher = new Matcher();
+        matcher.addMatcher(new PatternMatcher("1", "xxx yyy zzz"));
+        matcher.addMatcher(new PatternMatcher("2", "aaa $name bbb"));
+    }
+
+    @Test()
+    public void testDefaultExecutor() throws Exception {
+        assertNotNull(matcher.getAsyncExecutor());
+
+        CompletableFuture<TemplateMatchResult> future = matcher.matchAsync(tokenize("xxx yyy zzz aaa ccc bbb"));
+        TemplateMatchResult result = future.get(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("1", "2"), result.getTemplateIDs());
+        assertEquals("ccc", result.getExtractedVars().get("name"));
+    }
+
+    @Test()
+    public void testCustomExecutor() throws Exception {
+        final AtomicReference<Thread> worker = new AtomicReference<Thread>();
+        matcher.setAsyncExecutor(new Executor() {
+            public void execute(Runnable command) {
+                Thread thread = new Thread(command);
+                worker.set(thread);
+                thread.start();
+            }
+        });
+
+        TemplateMatchResult result = matcher.matchAsync(tokenize("aaa xxx yyy zzz")).get(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("1"), result.getTemplateIDs());
+        assertNotSame(Thread.currentThread(), worker.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testFullPool() throws Exception {
+        final CountDownLatch busy = new CountDownLatch(1);
+        ThreadPoolExecutor pool = AsyncExecutors.createPool(1, 1);
+        try {
+            Runnable blocked = new Runnable() {
+                public void run() {
+                    try {
+                        busy.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            pool.execute(blocked);
+            pool.execute(blocked);
+
+            // the thread and the queue are taken, the caller matches the sentence itself
+            matcher.setAsyncExecutor(pool);
+            CompletableFuture<TemplateMatchResult> future = matcher.matchAsync(tokenize("xxx yyy zzz"));
+            assertTrue(future.isDone());
+            assertEquals(Arrays.asList("1"), future.get().getTemplateIDs());
+        } finally {
+            busy.countDown();
+            pool.shutdown();
+        }
+    }
+}
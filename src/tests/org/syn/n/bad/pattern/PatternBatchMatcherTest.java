@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternBatchMatcherTest {
+    private static final String[] SENTENCES = new String[]{
+            "aaa xxx yyy zzz",
+            "xxx aaa yyy zzz",
+            "xxx aaa zzz xxx yyy",
+            "bbb ccc",
+            "xxx ddd eee zzz",
+    };
+
+    private ExecutorService executor;
+    private Matcher matcher;
+
+    @Before()
+    public void setup() {
+        executor = Executors.newFixedThreadPool(3);
+        matcher = new Matcher();
+        matcher.addMatcher(new PatternMatcher("1", "xxx yyy zzz"));
+        matcher.addMatcher(new PatternMatcher("2", "xxx yyy"));
+        matcher.addMatcher(new PatternMatcher("3", "xxx aaa zzz"));
+        matcher.addMatcher(new PatternMatcher("4", "xxx $name* zzz"));
+    }
+
+    @After()
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    private static List<TextAnnotation> corpus(int size) {
+        List<TextAnnotation> result = new ArrayList<TextAnnotation>(size);
+        for (int i = 0; i < size; i++) {
+            String[] split = SENTENCES[i % SENTENCES.length].split(" ");
+            TextAnnotation tokens = new TextAnnotation(split.length);
+            for (String token : split) {
+                tokens.addTextToken(new TextToken(token));
+            }
+            result.add(tokens);
+        }
+        return result;
+    }
+
+    private void assertSameAsSingle(List<TextAnnotation> sentences, List<TemplateMatchResult> results) {
+        assertEquals(sentences.size(), results.size());
+        for (int i = 0; i < sentences.size(); i++) {
+            TemplateMatchResult expected = matcher.match(sentences.get(i));
+            assertEquals(expected.getTemplateIDs(), results.get(i).getTemplateIDs());
+            assertEquals(expected.getExtractedVars(), results.get(i).getExtractedVars());
+        }
+    }
+
+    @Test()
+    public void testSequentialBatch() {
+        List<TextAnnotation> sentences = corpus(12);
+        assertSameAsSingle(sentences, matcher.matchAll(sentences));
+    }
+
+    @Test()
+    public void testParallelBatch() {
+        matcher.setBatchExecutor(executor);
+        matcher.setBatchSize(4);
+
+        List<TextAnnotation> sentences = corpus(103);
+        assertSameAsSingle(sentences, matcher.matchAll(sentences));
+
+        matcher.setCompiled(true);
+        assertSameAsSingle(sentences, matcher.matchAll(sentences));
+    }
+
+    @Test(timeout = 10000)
+    public void testBatchFromWorker() throws Exception {
+        // every worker of the executor calls matchAll, none is left to run the batches they submit
+        matcher.setBatchExecutor(executor);
+        matcher.setBatchSize(2);
+
+        final List<TextAnnotation> sentences = corpus(40);
+        List<Future<List<TemplateMatchResult>>> futures = new ArrayList<Future<List<TemplateMatchResult>>>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(executor.submit(new Callable<List<TemplateMatchResult>>() {
+                public List<TemplateMatchResult> call() {
+                    return matcher.matchAll(sentences);
+                }
+            }));
+        }
+        for (Future<List<TemplateMatchResult>> future : futures) {
+            assertSameAsSingle(sentences, future.get());
+        }
+    }
+
+    @Test()
+    public void testRejectedBatches() {
+        executor.shutdown();
+        matcher.setBatchExecutor(executor);
+        matcher.setBatchSize(2);
+
+        List<TextAnnotation> sentences = corpus(9);
+        assertSameAsSingle(sentences, matcher.matchAll(sentences));
+        assertTrue(matcher.matchAll(new ArrayList<TextAnnotation>()).isEmpty());
+    }
+}
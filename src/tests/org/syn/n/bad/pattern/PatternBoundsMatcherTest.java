@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternBoundsMatcherTest {
+    private static final String[][] PATTERNS = {
+            {"1", "xxx yyy zzz"},
+            {"2", "xxx yyy"},
+            {"3", "xxx yyy? zzz"},
+            {"4", "xxx $name* zzz"},
+            {"5", "xxx aaa* zzz"},
+            {"6", "aaa $name bbb"},
+            {"7", "yyy zzz"},
+            {"8", "xxx aaa zzz"},
+    };
+    private static final String[] WORDS = {"xxx", "yyy", "zzz", "aaa", "bbb"};
+
+    @Test()
+    public void testBounds() {
+        PatternBounds bounds = new PatternMatcher("1", "xxx yyy? zzz").getBounds();
+        assertEquals(2, bounds.getMinWindow());
+        assertEquals(3, bounds.getMaxCount());
+        assertEquals(0, bounds.getMaxCount(0, 1));
+        assertEquals(2, bounds.getMaxCount(0, 2));
+
+        bounds = new PatternMatcher("2", "xxx aaa* zzz").getBounds();
+        assertEquals(2, bounds.getMinWindow());
+        assertEquals(PatternBounds.UNBOUNDED, bounds.getMaxCount());
+        assertEquals(7, bounds.getMaxCount(3, 10));
+    }
+
+    @Test()
+    public void testPruning() {
+        Matcher matcher = new Matcher();
+        for (String[] pattern : PATTERNS) {
+            matcher.addMatcher(new PatternMatcher(pattern[0], pattern[1]));
+        }
+        PatternProfiler profiler = new PatternProfiler();
+        matcher.setProfiler(profiler);
+
+        TextAnnotation tokens = new TextAnnotation();
+        for (String word : "xxx yyy zzz".split(" ")) {
+            tokens.addTextToken(new TextToken(word));
+        }
+        assertEquals("1", matcher.match(tokens, 0, tokens.size()).getTemplateID());
+
+        // all their anchors are in the sentence, but their bounds cannot reach the three tokens of the winner
+        Map<String, PatternProfile> walked = profiler.snapshot();
+        assertTrue(walked.containsKey("1"));
+        assertFalse(walked.containsKey("2"));
+        assertFalse(walked.containsKey("7"));
+    }
+
+    @Test()
+    public void testSameAsFullScan() {
+        Matcher matcher = new Matcher();
+        List<PatternMatcher> patterns = new ArrayList<PatternMatcher>();
+        for (String[] pattern : PATTERNS) {
+            PatternMatcher item = new PatternMatcher(pattern[0], pattern[1]);
+            patterns.add(item);
+            matcher.addMatcher(item);
+        }
+
+        Random random = new Random(17);
+        for (int sentence = 0; sentence < 300; sentence++) {
+            TextAnnotation tokens = new TextAnnotation();
+            int size = 1 + random.nextInt(7);
+            for (int i = 0; i < size; i++) {
+                tokens.addTextToken(new TextToken(WORDS[random.nextInt(WORDS.length)]));
+            }
+
+            for (int from = 0; from < size; from++) {
+                String expectedID = null;
+                int expectedWindow = -1;
+                int expectedCount = 0;
+                for (PatternMatcher pattern : patterns) {
+                    PatternMatcher.PatternMatch pm = pattern.match(tokens, from, size);
+                    if (pm.getMatchCount() > expectedCount ||
+                        (pm.getMatchCount() == expectedCount && pm.getMatchWindow() < expectedWindow)) {
+                        expectedID = pattern.getId();
+                        expectedWindow = pm.getMatchWindow();
+                        expectedCount = pm.getMatchCount();
+                    }
+                }
+
+                MatchResult result = matcher.match(tokens, from, size);
+                assertEquals(tokens.getTokens() + " @" + from, expectedID, result.getTemplateID());
+                assertEquals(tokens.getTokens() + " @" + from, expectedWindow, result.getMatchedTokens());
+            }
+        }
+    }
+}
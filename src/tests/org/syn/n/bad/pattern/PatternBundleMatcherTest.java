@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.syn.n.bad.annotation.*;
+import org.syn.n.bad.pattern.token.SkipMatcher;
+import org.syn.n.bad.pattern.token.SynMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternBundleMatcherTest {
+    private static final String PATTERNS = "// greetings\n" +
+                                           "1\txxx yyy zzz\n" +
+                                           "\n" +
+                                           "2\txxx $name* zzz\tmood=happy\n" +
+                                           "3\tthe <JJ>? <NN*#thing> run\tmood=sad;lang=en\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test()
+    public void testRoundTrip() throws IOException {
+        List<PatternMatcher> patterns = PatternBundle.readPatterns(new StringReader(PATTERNS), Locale.ENGLISH);
+        assertEquals(3, patterns.size());
+
+        Matcher original = new Matcher();
+        for (PatternMatcher pattern : patterns) {
+            original.addMatcher(pattern);
+        }
+
+        File file = folder.newFile("patterns.bundle");
+        PatternBundle.write(original, file);
+        Matcher loaded = PatternBundle.load(file);
+
+        List<TextAnnotation> sentences = Arrays.asList(
+                tokenize("xxx yyy zzz", "NN", "NN", "NN"),
+                tokenize("xxx aaa bbb zzz", "NN", "NN", "NN", "NN"),
+                tokenize("the red cars run", "DT", "JJ", "NNS", "VBP"),
+                tokenize("the cars run xxx yyy zzz", "DT", "NNS", "VBP", "NN", "NN", "NN"));
+        for (TextAnnotation sentence : sentences) {
+            assertEquals(original.matchSpans(sentence).toString(), loaded.matchSpans(sentence).toString());
+            for (MatchSpan span : loaded.matchSpans(sentence)) {
+                assertNotNull(span.getStyleLabels());
+            }
+
+            TemplateMatchResult expected = original.match(sentence);
+            TemplateMatchResult actual = loaded.match(sentence);
+            assertEquals(expected.getTemplateIDs(), actual.getTemplateIDs());
+            assertEquals(expected.getExtractedVars(), actual.getExtractedVars());
+            assertEquals(expected.getExtractedStyles(), actual.getExtractedStyles());
+        }
+    }
+
+    @Test()
+    public void testSynsets() throws IOException {
+        TokenMatcher start = new SkipMatcher();
+        SynMatcher syn = new SynMatcher(Locale.FRENCH, "animal#kind", true,
+                                        new HashSet<String>(Arrays.asList("bn:1n", "bn:2n")));
+        syn.setFinal(true);
+        start.addNext(syn);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PatternBundle.write(Arrays.asList(new PatternMatcher("1", "[animal#kind]", start)),
+                            new DataOutputStream(bytes));
+        List<PatternMatcher> patterns = PatternBundle.read(ByteBuffer.wrap(bytes.toByteArray()));
+
+        SynMatcher loaded = (SynMatcher) patterns.get(0).getStart().getMatcherList().get(0);
+        assertEquals("[animal#kind]", loaded.toString());
+        assertEquals("#kind", loaded.getVariableLabel());
+        assertEquals(Locale.FRENCH, loaded.getLanguage());
+        assertEquals(syn.getSynsets(), loaded.getSynsets());
+        assertTrue(loaded.isFinal());
+    }
+
+    @Test()
+    public void testCorruptedLength() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PatternBundle.write(PatternBundle.readPatterns(new StringReader(PATTERNS), Locale.ENGLISH),
+                            new DataOutputStream(bytes));
+
+        // the length of the first pattern id follows the magic, the version and the pattern count
+        for (int length : new int[]{-1, Integer.MAX_VALUE}) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            buffer.putInt(12, length);
+            try {
+                PatternBundle.read(buffer);
+                fail("Length " + length + " was accepted");
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupted pattern bundle"));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testVersion() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(PatternBundle.MAGIC);
+        out.writeInt(PatternBundle.VERSION + 1);
+        out.writeInt(0);
+        PatternBundle.read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+}
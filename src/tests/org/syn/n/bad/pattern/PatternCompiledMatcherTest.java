@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternCompiledMatcherTest {
+    private static final String[][] PATTERNS = new String[][]{
+            {"1", "xxx yyy zzz"},
+            {"2", "xxx yyy"},
+            {"3", "xxx aaa zzz"},
+            {"4", "xxx yyy? zzz"},
+            {"5", "xxx aaa* zzz"},
+            {"6", "xxx $name1? zzz"},
+            {"7", "xxx $name2* zzz"},
+            {"8", "aaa bbb? $rest"},
+    };
+
+    private static final String[] SENTENCES = new String[]{
+            "aaa xxx yyy zzz",
+            "xxx aaa yyy zzz",
+            "xxx aaa aaa yyy zzz",
+            "xxx aaa aaa aaa yyy zzz",
+            "xxx aaa aaa aaa bbb yyy zzz",
+            "xxx aaa zzz xxx yyy",
+            "aaa bbb ccc ddd",
+            "zzz yyy xxx",
+            "xxx",
+    };
+
+    private Matcher interpreted;
+    private Matcher compiled;
+
+    @Before()
+    public void setup() {
+        interpreted = new Matcher();
+        compiled = new Matcher();
+        compiled.setCompiled(true);
+        for (String[] pattern : PATTERNS) {
+            interpreted.addMatcher(new PatternMatcher(pattern[0], pattern[1], "mood=p" + pattern[0]));
+            compiled.addMatcher(new PatternMatcher(pattern[0], pattern[1], "mood=p" + pattern[0]));
+        }
+    }
+
+    @Test()
+    public void testSameResultsAsInterpreted() {
+        for (String sentence : SENTENCES) {
+            TextAnnotation tokens = tokenize(sentence);
+            for (int from = 0; from <= tokens.size(); from++) {
+                MatchResult expected = interpreted.match(tokens, from, tokens.size());
+                MatchResult result = compiled.match(tokens, from, tokens.size());
+
+                String message = sentence + " @" + from;
+                assertEquals(message, expected.getTemplateID(), result.getTemplateID());
+                assertEquals(message, expected.getMatchedTokens(), result.getMatchedTokens());
+                assertEquals(message, expected.getMatchedVars(), result.getMatchedVars());
+                assertEquals(message, expected.getStyleLabels(), result.getStyleLabels());
+            }
+        }
+    }
+
+    @Test()
+    public void testTemplateMatch() {
+        for (String sentence : SENTENCES) {
+            TextAnnotation tokens = tokenize(sentence);
+            assertEquals(sentence, interpreted.match(tokens).getTemplateIDs(), compiled.match(tokens).getTemplateIDs());
+        }
+    }
+
+    @Test()
+    public void testUpdatedPatterns() {
+        TextAnnotation tokens = tokenize("xxx yyy zzz");
+        assertEquals("1", compiled.match(tokens, 0, tokens.size()).getTemplateID());
+
+        Matcher matcher = new Matcher();
+        matcher.setCompiled(true);
+        PatternMatcher pattern = new PatternMatcher("1", "xxx yyy zzz");
+        matcher.addMatcher(pattern);
+        assertEquals("1", matcher.match(tokens, 0, tokens.size()).getTemplateID());
+
+        matcher.removeMatcher(pattern);
+        assertNull(matcher.match(tokens, 0, tokens.size()).getTemplateID());
+    }
+}
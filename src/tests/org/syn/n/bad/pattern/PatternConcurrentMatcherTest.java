@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternConcurrentMatcherTest {
+    private static final int THREADS = 4;
+    private static final int ITERATIONS = 2000;
+
+    private void runConcurrently(final Matcher matcher, final boolean compiled) throws InterruptedException {
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final PatternMatcher hot = new PatternMatcher("hot", "xxx yyy zzz");
+        List<Thread> threads = new LinkedList<Thread>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final String value = "v" + t;
+            threads.add(new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        TextAnnotation plain = tokenize("xxx yyy zzz");
+                        TextAnnotation variable = tokenize("aaa " + value + " bbb");
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            MatchResult result = matcher.match(plain, 0, plain.size());
+                            assertTrue("hot".equals(result.getTemplateID()) || "base".equals(result.getTemplateID()));
+                            assertEquals("hot".equals(result.getTemplateID()) ? 3 : 2, result.getMatchedTokens());
+
+                            result = matcher.match(variable, 0, variable.size());
+                            assertEquals("var", result.getTemplateID());
+                            assertEquals(value, result.getMatchedVars().get("v"));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }));
+        }
+        threads.add(new Thread(new Runnable() {
+            public void run() {
+                for (int i = 0; i < ITERATIONS / 10; i++) {
+                    matcher.addMatcher(hot);
+                    matcher.removeMatcher(hot);
+                }
+            }
+        }));
+
+        matcher.setCompiled(compiled);
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(String.valueOf(failure.get()), failure.get());
+    }
+
+    @Test()
+    public void testConcurrentMatching() throws InterruptedException {
+        Matcher matcher = new Matcher();
+        matcher.addMatcher(new PatternMatcher("base", "xxx yyy"));
+        matcher.addMatcher(new PatternMatcher("var", "aaa $v bbb"));
+
+        runConcurrently(matcher, false);
+        runConcurrently(matcher, true);
+    }
+
+    @Test()
+    public void testSharedPatternMatcher() throws InterruptedException {
+        final PatternMatcher pattern = new PatternMatcher("var", "aaa $v* bbb");
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> threads = new LinkedList<Thread>();
+
+        for (int t = 0; t < THREADS; t++) {
+            final String value = "v" + t;
+            threads.add(new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        TextAnnotation tokens = tokenize("aaa " + value + " " + value + " bbb");
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            PatternMatcher.PatternMatch pm = pattern.match(tokens, 0, tokens.size());
+                            assertEquals(4, pm.getMatchWindow());
+                            assertEquals(value + " " + value, pm.getMatchedVars().get("v"));
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }));
+        }
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(String.valueOf(failure.get()), failure.get());
+    }
+
+    @Test()
+    public void testStyleDefaults() {
+        Matcher matcher = new Matcher();
+        PatternMatcher styled = new PatternMatcher("styled", "aaa bbb", "mood=angry");
+        matcher.addMatcher(new PatternMatcher("plain", "xxx yyy", "lang=en"));
+        matcher.addMatcher(styled);
+
+        TextAnnotation tokens = tokenize("xxx yyy");
+        assertEquals("*", matcher.match(tokens, 0, tokens.size()).getStyleLabels().get("mood"));
+
+        matcher.removeMatcher(styled);
+        assertNull(matcher.match(tokens, 0, tokens.size()).getStyleLabels().get("mood"));
+    }
+}
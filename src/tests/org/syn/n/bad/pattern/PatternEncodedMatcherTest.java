@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.*;
+import org.syn.n.bad.pattern.token.POSMatcher;
+import org.syn.n.bad.pattern.token.SimpleTokenMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternEncodedMatcherTest {
+    @Test()
+    public void testSymbols() {
+        new SimpleTokenMatcher("encoded-known", true);
+        EncodedTokens encoded = new EncodedTokens(tokenize("encoded-known encoded-unknown encoded-known"));
+
+        assertEquals(TokenSymbols.lookup("encoded-known"), encoded.getSymbol(0));
+        assertEquals(TokenSymbols.UNKNOWN, encoded.getSymbol(1));
+        assertEquals(encoded.getSymbol(0), encoded.getSymbol(2));
+    }
+
+    @Test()
+    public void testSameAsTokens() {
+        List<TokenMatcher> matchers = Arrays.<TokenMatcher>asList(new SimpleTokenMatcher("red", true),
+                                                                  new SimpleTokenMatcher("now", false),
+                                                                  new POSMatcher("NN*", true),
+                                                                  new POSMatcher("VB*", true),
+                                                                  new POSMatcher("JJ", true),
+                                                                  new POSMatcher("RB*", true));
+        TextAnnotation tokens = tokenize("the red cars run fast now", "DT", "JJ", "NNS", "VBP/NN", "RB", "SENT");
+        EncodedTokens encoded = new EncodedTokens(tokens);
+
+        for (TokenMatcher matcher : matchers) {
+            for (int i = 0; i < tokens.size(); i++) {
+                assertEquals(matcher + " @" + i, matcher.match(tokens, i), matcher.match(encoded, i));
+            }
+        }
+    }
+
+    @Test()
+    public void testPatterns() {
+        TextAnnotation tokens = tokenize("the red cars run", "DT", "JJ", "NNS", "VBP");
+        PatternMatcher pattern = new PatternMatcher("1", "the <JJ>? <NN*#thing> run");
+        PatternMatcher.PatternMatch match = pattern.match(new EncodedTokens(tokens), 0, tokens.size());
+
+        assertEquals(4, match.getMatchWindow());
+        assertEquals("cars", match.getMatchedVars().get("#thing"));
+    }
+}
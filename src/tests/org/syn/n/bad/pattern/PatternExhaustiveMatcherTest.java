@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternExhaustiveMatcherTest {
+    private static final String[] PATTERNS = new String[]{
+            "xxx yyy zzz",
+            "xxx yyy? yyy zzz",
+            "xxx aaa* aaa zzz",
+            "xxx $name* zzz",
+            "aaa $first? $last bbb",
+            "$rest yyy",
+    };
+
+    private static final String[] SENTENCES = new String[]{
+            "xxx yyy zzz",
+            "xxx yyy yyy zzz",
+            "xxx aaa zzz",
+            "xxx aaa aaa zzz yyy",
+            "aaa ccc bbb",
+            "aaa ccc ddd bbb",
+            "ccc ddd yyy",
+    };
+
+    @Test()
+    public void testNeverWorseThanGreedy() {
+        for (String pattern : PATTERNS) {
+            PatternMatcher matcher = new PatternMatcher("1", pattern);
+            for (String sentence : SENTENCES) {
+                TextAnnotation tokens = tokenize(sentence);
+                for (int from = 0; from < tokens.size(); from++) {
+                    PatternMatcher.PatternMatch greedy = matcher.match(tokens, from, tokens.size());
+                    PatternMatcher.PatternMatch exhaustive = matcher.matchExhaustive(tokens, from, tokens.size());
+                    assertTrue(pattern + " | " + sentence + " @" + from,
+                               exhaustive.getMatchCount() >= greedy.getMatchCount());
+                }
+            }
+        }
+    }
+
+    @Test()
+    public void testBranches() {
+        TextAnnotation tokens = tokenize("xxx yyy zzz");
+        PatternMatcher matcher = new PatternMatcher("1", "xxx yyy? yyy zzz");
+        assertEquals(0, matcher.match(tokens, 0, tokens.size()).getMatchCount());
+        assertEquals(3, matcher.matchExhaustive(tokens, 0, tokens.size()).getMatchCount());
+
+        tokens = tokenize("xxx aaa zzz");
+        matcher = new PatternMatcher("1", "xxx aaa* aaa zzz");
+        assertEquals(0, matcher.match(tokens, 0, tokens.size()).getMatchCount());
+        assertEquals(3, matcher.matchExhaustive(tokens, 0, tokens.size()).getMatchWindow());
+    }
+
+    @Test()
+    public void testCaptures() {
+        TextAnnotation tokens = tokenize("aaa ccc ddd eee bbb");
+        PatternMatcher.PatternMatch match = new PatternMatcher("1", "aaa $name* bbb").matchExhaustive(tokens, 0,
+                                                                                                       tokens.size());
+        assertEquals(5, match.getMatchWindow());
+        assertEquals("ccc ddd eee", match.getMatchedVars().get("name"));
+
+        tokens = tokenize("aaa ccc bbb");
+        match = new PatternMatcher("1", "aaa $first? $last bbb").matchExhaustive(tokens, 0, tokens.size());
+        assertEquals(3, match.getMatchCount());
+        assertEquals("ccc", match.getMatchedVars().get("last"));
+    }
+
+    @Test()
+    public void testMatcherMode() {
+        Matcher matcher = new Matcher();
+        matcher.addMatcher(new PatternMatcher("1", "xxx yyy? yyy zzz"));
+        matcher.addMatcher(new PatternMatcher("2", "www"));
+
+        TextAnnotation tokens = tokenize("xxx yyy zzz www");
+        assertEquals(Arrays.asList("2"), matcher.match(tokens).getTemplateIDs());
+
+        matcher.setExhaustive(true);
+        assertEquals(Arrays.asList("1", "2"), matcher.match(tokens).getTemplateIDs());
+        assertEquals(3, matcher.match(tokens, 0, tokens.size()).getMatchedTokens());
+
+        matcher.setCompiled(true);
+        assertEquals(Arrays.asList("1", "2"), matcher.match(tokens).getTemplateIDs());
+    }
+}
@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+import org.syn.n.bad.pattern.token.GapMatcher;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternGapMatcherTest {
+    private static final String[] WORDS = {"xxx", "yyy", "zzz", "aaa", "bbb"};
+    private static final String[][] PATTERNS = {
+            {"1", "xxx yyy zzz"},
+            {"2", "xxx aaa? zzz"},
+            {"3", "yyy $name* zzz"},
+            {"4", "xxx yyy?"},
+    };
+
+    private static int countNodes(TokenMatcher start) {
+        Set<TokenMatcher> visited = Collections.newSetFromMap(new IdentityHashMap<TokenMatcher, Boolean>());
+        LinkedList<TokenMatcher> queue = new LinkedList<TokenMatcher>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            TokenMatcher node = queue.removeFirst();
+            if (visited.add(node)) {
+                queue.addAll(node.getMatcherList());
+            }
+        }
+        return visited.size();
+    }
+
+    private static String describe(MatchResult result) {
+        return result.getTemplateID() + "/" + result.getMatchedTokens();
+    }
+
+    @Test()
+    public void testDefaultGap() {
+        PatternMatcher matcher = new PatternMatcher("1", "xxx yyy zzz");
+        assertEquals(6, countNodes(matcher.getStart()));
+
+        assertEquals(3, matcher.match(tokenize("xxx yyy zzz"), 0, 3).getMatchCount());
+        assertEquals(3, matcher.match(tokenize("xxx aaa bbb yyy zzz"), 0, 5).getMatchCount());
+        assertEquals(0, matcher.match(tokenize("xxx aaa bbb ccc yyy zzz"), 0, 6).getMatchCount());
+    }
+
+    @Test()
+    public void testWideGap() {
+        PatternMatcher matcher = new PatternMatcher("1", "xxx yyy", null, Locale.ENGLISH, 0, 4);
+        TextAnnotation tokens = tokenize("xxx a b c d yyy");
+        assertEquals(2, matcher.match(tokens, 0, tokens.size()).getMatchCount());
+        assertEquals(6, matcher.match(tokens, 0, tokens.size()).getMatchWindow());
+        assertEquals(0, matcher.match(tokenize("xxx a b c d e yyy"), 0, 7).getMatchCount());
+        assertEquals(2, PatternBounds.of(matcher.getStart()).getMinWindow());
+    }
+
+    @Test()
+    public void testMinimumGap() {
+        PatternMatcher matcher = new PatternMatcher("1", "xxx yyy", null, Locale.ENGLISH, 1, 2);
+        assertEquals(0, matcher.match(tokenize("xxx yyy"), 0, 2).getMatchCount());
+        assertEquals(2, matcher.match(tokenize("xxx a yyy"), 0, 3).getMatchCount());
+        assertEquals(2, matcher.match(tokenize("xxx a b yyy"), 0, 4).getMatchCount());
+        assertEquals(0, matcher.match(tokenize("xxx a b c yyy"), 0, 5).getMatchCount());
+        assertEquals(3, PatternBounds.of(matcher.getStart()).getMinWindow());
+    }
+
+    @Test()
+    public void testTrailingOptional() {
+        PatternMatcher pattern = new PatternMatcher("1", "xxx yyy?", null, Locale.ENGLISH, 1, 2);
+        assertEquals(2, pattern.match(tokenize("xxx a yyy"), 0, 3).getMatchCount());
+        assertEquals(2, pattern.match(tokenize("xxx a b yyy"), 0, 4).getMatchCount());
+        assertEquals(1, pattern.match(tokenize("xxx"), 0, 1).getMatchCount());
+
+        Matcher scan = new Matcher();
+        Matcher compiled = new Matcher();
+        compiled.setCompiled(true);
+        Matcher exhaustive = new Matcher();
+        exhaustive.setExhaustive(true);
+        Matcher generated = new Matcher();
+        generated.setGenerated(true);
+        for (Matcher matcher : Arrays.asList(scan, compiled, exhaustive, generated)) {
+            matcher.addMatcher(new PatternMatcher("1", "xxx yyy?", null, Locale.ENGLISH, 1, 2));
+            matcher.awaitGenerated();
+            assertEquals(3, matcher.match(tokenize("xxx a yyy"), 0, 3).getMatchedTokens());
+            assertEquals(4, matcher.match(tokenize("xxx a b yyy"), 0, 4).getMatchedTokens());
+            assertEquals(1, matcher.match(tokenize("xxx"), 0, 1).getMatchedTokens());
+        }
+    }
+
+    @Test()
+    public void testInvalidGap() {
+        try {
+            new GapMatcher(2, 1);
+            fail("Expected an invalid gap");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new GapMatcher(0, 0);
+            fail("Expected an invalid gap");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test()
+    public void testSameInAllModes() {
+        int[][] gaps = {{0, 2}, {0, 4}, {1, 3}, {2, 2}};
+        for (int[] gap : gaps) {
+            Matcher scan = new Matcher();
+            Matcher compiled = new Matcher();
+            compiled.setCompiled(true);
+            Matcher exhaustive = new Matcher();
+            exhaustive.setExhaustive(true);
+            Matcher generated = new Matcher();
+            generated.setGenerated(true);
+            for (String[] pattern : PATTERNS) {
+                for (Matcher matcher : Arrays.asList(scan, compiled, exhaustive, generated)) {
+                    matcher.addMatcher(new PatternMatcher(pattern[0], pattern[1], null, Locale.ENGLISH, gap[0],
+                                                          gap[1]));
+                }
+            }
+            generated.awaitGenerated();
+
+            Random random = new Random(gap[0] * 10 + gap[1]);
+            for (int sentence = 0; sentence < 200; sentence++) {
+                TextAnnotation tokens = new TextAnnotation();
+                int size = 1 + random.nextInt(9);
+                for (int i = 0; i < size; i++) {
+                    tokens.addTextToken(new TextToken(WORDS[random.nextInt(WORDS.length)]));
+                }
+
+                for (int from = 0; from < size; from++) {
+                    String message = Arrays.toString(gap) + " " + tokens.getTokens() + " @" + from;
+                    String expected = describe(scan.match(tokens, from, size));
+                    assertEquals(message, expected, describe(compiled.match(tokens, from, size)));
+                    assertEquals(message, expected, describe(generated.match(tokens, from, size)));
+
+                    if (scan.match(tokens, from, size).getTemplateID() != null) {
+                        assertNotNull(message, exhaustive.match(tokens, from, size).getTemplateID());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test()
+    public void testBundle() throws IOException {
+        PatternMatcher original = new PatternMatcher("1", "xxx yyy", null, Locale.ENGLISH, 1, 3);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PatternBundle.write(Arrays.asList(original), new DataOutputStream(bytes));
+        PatternMatcher loaded = PatternBundle.read(ByteBuffer.wrap(bytes.toByteArray())).get(0);
+
+        assertEquals(countNodes(original.getStart()), countNodes(loaded.getStart()));
+        for (String sentence : new String[]{"xxx yyy", "xxx a yyy", "xxx a b c yyy", "xxx a b c d yyy"}) {
+            TextAnnotation tokens = tokenize(sentence);
+            assertEquals(sentence, original.match(tokens, 0, tokens.size()).getMatchCount(),
+                         loaded.match(tokens, 0, tokens.size()).getMatchCount());
+        }
+    }
+}
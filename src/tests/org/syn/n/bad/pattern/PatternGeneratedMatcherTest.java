@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternGeneratedMatcherTest {
+    private static final String[][] PATTERNS = new String[][]{
+            {"1", "xxx yyy zzz"},
+            {"2", "xxx yyy"},
+            {"3", "xxx aaa zzz"},
+            {"4", "xxx yyy? zzz"},
+            {"5", "xxx aaa* zzz"},
+            {"6", "xxx $name1? zzz"},
+            {"7", "xxx $name2* zzz"},
+            {"8", "aaa bbb? $rest"},
+            {"9", "\"quoted\\\" \u00e9t\u00e9"},
+    };
+
+    private static final String[] SENTENCES = new String[]{
+            "aaa xxx yyy zzz",
+            "xxx aaa yyy zzz",
+            "xxx aaa aaa yyy zzz",
+            "xxx aaa aaa aaa bbb yyy zzz",
+            "xxx aaa zzz xxx yyy",
+            "aaa bbb ccc ddd",
+            "zzz yyy xxx",
+            "\"quoted\\\" \u00e9t\u00e9",
+            "xxx",
+    };
+
+    private Matcher interpreted;
+    private Matcher generated;
+
+    @Before()
+    public void setup() {
+        interpreted = new Matcher();
+        generated = new Matcher();
+        generated.setGenerated(true);
+        for (String[] pattern : PATTERNS) {
+            interpreted.addMatcher(new PatternMatcher(pattern[0], pattern[1], "mood=p" + pattern[0]));
+            generated.addMatcher(new PatternMatcher(pattern[0], pattern[1], "mood=p" + pattern[0]));
+        }
+        generated.awaitGenerated();
+    }
+
+    @Test()
+    public void testSameResultsAsInterpreted() {
+        for (String sentence : SENTENCES) {
+            TextAnnotation tokens = tokenize(sentence);
+            for (int from = 0; from <= tokens.size(); from++) {
+                MatchResult expected = interpreted.match(tokens, from, tokens.size());
+                MatchResult result = generated.match(tokens, from, tokens.size());
+
+                String message = sentence + " @" + from;
+                assertEquals(message, expected.getTemplateID(), result.getTemplateID());
+                assertEquals(message, expected.getMatchedTokens(), result.getMatchedTokens());
+                assertEquals(message, expected.getMatchedVars(), result.getMatchedVars());
+                assertEquals(message, expected.getStyleLabels(), result.getStyleLabels());
+            }
+            assertEquals(sentence, interpreted.match(tokens).getTemplateIDs(),
+                         generated.match(tokens).getTemplateIDs());
+        }
+    }
+
+    @Test()
+    public void testCompiledClasses() {
+        assumeTrue(PatternCompiler.isAvailable());
+
+        PatternMatcher first = new PatternMatcher("1", "xxx $name* zzz");
+        PatternMatcher second = new PatternMatcher("2", "aaa yyy? bbb");
+        Map<PatternMatcher, GeneratedPattern> classes = PatternCompiler.compile(Arrays.asList(first, second));
+        assertEquals(2, classes.size());
+
+        TextAnnotation tokens = tokenize("xxx aaa bbb zzz");
+        PatternMatcher.PatternMatch match = classes.get(first).match(tokens, 0, tokens.size());
+        assertEquals(first.match(tokens, 0, tokens.size()).getMatchCount(), match.getMatchCount());
+        assertEquals(4, match.getMatchWindow());
+        assertEquals("aaa bbb", match.getMatchedVars().get("name"));
+    }
+
+    @Test()
+    public void testReusedClasses() {
+        assumeTrue(PatternCompiler.isAvailable());
+
+        MatcherSnapshot snapshot = new MatcherSnapshot().add(new PatternMatcher("1", "xxx yyy"));
+        GeneratedPattern first = snapshot.generate().get(snapshot.getMatchers().get(0));
+
+        MatcherSnapshot next = snapshot.add(new PatternMatcher("2", "aaa bbb"));
+        assertEquals(1, next.getGenerated().size());
+        assertEquals(2, next.generate().size());
+        assertEquals(first, next.getGenerated().get(next.getMatchers().get(0)));
+    }
+
+    @Test(timeout = 60000)
+    public void testBackgroundCompiler() throws InterruptedException {
+        assumeTrue(PatternCompiler.isAvailable());
+
+        final CountDownLatch busy = new CountDownLatch(1);
+        PatternCompiler.submit(new Runnable() {
+            public void run() {
+                try {
+                    busy.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        Matcher matcher = new Matcher();
+        matcher.setGenerated(true);
+        matcher.addMatcher(new PatternMatcher("1", "xxx $name* zzz"));
+        try {
+            // the compiler is busy, the match uses the interpreter instead of waiting
+            assertEquals(Arrays.asList("1"), matcher.match(tokenize("xxx aaa zzz")).getTemplateIDs());
+        } finally {
+            busy.countDown();
+        }
+
+        matcher.awaitGenerated();
+        assertEquals(Arrays.asList("1"), matcher.match(tokenize("xxx aaa zzz")).getTemplateIDs());
+    }
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+import org.syn.n.bad.annotation.TokenLattice;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternLatticeMatcherTest {
+    private static final String[][] PATTERNS = new String[][]{
+            {"1", "xxx yyy zzz"},
+            {"2", "xxx yyy"},
+            {"3", "xxx aaa zzz"},
+            {"4", "xxx yyy? zzz"},
+            {"5", "xxx aaa* zzz"},
+            {"6", "aaa $name bbb"},
+    };
+
+    // every slot is a list of alternatives, written as word:score
+    private static final String[][] LATTICES = new String[][]{
+            {"xxx:-1", "yyy:-1 aaa:-2", "zzz:-1"},
+            {"xxx:-1", "aaa:-1 yyy:-3", "zzz:-1 www:-0.5"},
+            {"aaa:-1 xxx:-2", "aaa:-1 ccc:-1", "aaa:-3 zzz:-2", "zzz:-1 bbb:-1"},
+            {"aaa:-1", "ccc:-1 ddd:-0.5", "bbb:-1 yyy:-1"},
+            {"www:-1", "xxx:-1"},
+    };
+
+    private Matcher matcher;
+
+    @Before()
+    public void setup() {
+        matcher = new Matcher();
+        for (String[] pattern : PATTERNS) {
+            matcher.addMatcher(new PatternMatcher(pattern[0], pattern[1]));
+        }
+    }
+
+    private static TokenLattice lattice(String[] slots) {
+        TokenLattice lattice = new TokenLattice();
+        for (String slot : slots) {
+            lattice.addSlot();
+            for (String alternative : slot.split(" ")) {
+                String[] split = alternative.split(":");
+                lattice.addAlternative(new TextToken(split[0]), Double.parseDouble(split[1]));
+            }
+        }
+        return lattice;
+    }
+
+    @Test()
+    public void testSameAsExpandedPaths() {
+        for (String[] slots : LATTICES) {
+            TokenLattice lattice = lattice(slots);
+            for (int from = 0; from < lattice.size(); from++) {
+                LatticeMatchResult result = matcher.match(lattice, from, lattice.size());
+
+                // the best of every path, matched as a separate sentence
+                String expectedId = null;
+                int expectedCount = 0;
+                int expectedWindow = -1;
+                double expectedScore = 0;
+                int[] indexes = new int[lattice.size() - from];
+                boolean done = false;
+                for (int i = 0; i < indexes.length; i++) {
+                    indexes[i] = lattice.getSlotStart(from + i);
+                }
+                while (!done) {
+                    TextAnnotation path = lattice.getPath(indexes);
+                    for (String[] pattern : PATTERNS) {
+                        PatternMatcher.PatternMatch pm = new PatternMatcher(pattern[0], pattern[1])
+                                .match(path, 0, path.size());
+                        double score = 0;
+                        for (int i = 0; i < pm.getMatchWindow(); i++) {
+                            score += lattice.getScore(indexes[i]);
+                        }
+                        if (pm.getMatchCount() > 0 &&
+                            (pm.getMatchCount() > expectedCount ||
+                             (pm.getMatchCount() == expectedCount && (pm.getMatchWindow() < expectedWindow ||
+                                                                      (pm.getMatchWindow() == expectedWindow &&
+                                                                       score > expectedScore))))) {
+                            expectedId = pattern[0];
+                            expectedCount = pm.getMatchCount();
+                            expectedWindow = pm.getMatchWindow();
+                            expectedScore = score;
+                        }
+                    }
+
+                    done = true;
+                    for (int i = indexes.length - 1; i >= 0 && done; i--) {
+                        indexes[i]++;
+                        if (indexes[i] < lattice.getSlotEnd(from + i)) {
+                            done = false;
+                        } else {
+                            indexes[i] = lattice.getSlotStart(from + i);
+                        }
+                    }
+                }
+
+                String message = Arrays.toString(slots) + " @" + from;
+                assertEquals(message, expectedId, result.getTemplateID());
+                if (expectedId != null) {
+                    assertEquals(message, expectedWindow, result.getMatchedTokens());
+                    assertEquals(message, expectedScore, result.getScore(), 1e-9);
+                }
+            }
+        }
+    }
+
+    @Test()
+    public void testBestPath() {
+        LatticeMatchResult result = matcher.match(lattice(LATTICES[3]), 0, 3);
+        assertEquals("6", result.getTemplateID());
+        assertEquals("ddd", result.getMatchedVars().get("name"));
+        assertEquals("aaa ddd bbb ", result.getPath().getTranscription());
+        assertEquals(-2.5, result.getScore(), 1e-9);
+
+        assertNull(matcher.match(lattice(LATTICES[4]), 0, 1).getTemplateID());
+    }
+
+    @Test()
+    public void testTemplateMatch() {
+        assertEquals(Arrays.<String>asList(), matcher.match(lattice(LATTICES[4])).getTemplateIDs());
+        assertEquals(Arrays.asList("3"), matcher.match(lattice(LATTICES[1])).getTemplateIDs());
+        assertEquals(Arrays.asList("1"), matcher.match(lattice(LATTICES[0])).getTemplateIDs());
+        assertEquals(Arrays.asList("6"), matcher.match(lattice(LATTICES[3])).getTemplateIDs());
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.dictionary.Dictionary;
+import org.syn.n.bad.dictionary.DictionaryException;
+import org.syn.n.bad.dictionary.POS;
+import org.syn.n.bad.dictionary.extensions.AbstractDictionaryExtension;
+import org.syn.n.bad.metrics.MBeans;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternMBeanMatcherTest {
+    @Test()
+    public void testMatcherBean() throws JMException {
+        Matcher matcher = new Matcher();
+        matcher.addMatcher(new PatternMatcher("1", "xxx yyy"));
+        matcher.addMatcher(new PatternMatcher("2", "aaa bbb"));
+        matcher.match(tokenize("xxx yyy"));
+
+        MatcherMXBean bean = matcher.registerMBean("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = MBeans.name("Matcher", "test");
+        ObjectName windows = MBeans.name("Matcher", "test", "window");
+        ObjectName sentences = MBeans.name("Matcher", "test", "sentence");
+        try {
+            matcher.match(tokenize("xxx yyy"));
+            matcher.match(tokenize("zzz"));
+            matcher.match(tokenize("aaa bbb"), 0, 2);
+
+            assertEquals(2L, server.getAttribute(sentences, "Count"));
+            assertEquals(1L, server.getAttribute(sentences, "HitCount"));
+            assertEquals(1L, server.getAttribute(windows, "Count"));
+            assertEquals(1L, server.getAttribute(windows, "HitCount"));
+            assertEquals(2, server.getAttribute(name, "PatternCount"));
+            assertEquals(0, ((String[]) server.getAttribute(name, "TopPatterns")).length);
+            assertTrue((Double) server.getAttribute(sentences, "P99Micros") >=
+                       (Double) server.getAttribute(sentences, "P50Micros"));
+
+            matcher.setProfiler(new PatternProfiler());
+            matcher.match(tokenize("xxx yyy"));
+            assertTrue(bean.getTopPatterns().length > 0);
+
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, server.getAttribute(sentences, "Count"));
+            assertEquals(0L, server.getAttribute(windows, "HitCount"));
+        } finally {
+            matcher.unregisterMBean();
+        }
+
+        assertFalse(server.isRegistered(name));
+        assertFalse(server.isRegistered(windows));
+        assertFalse(server.isRegistered(sentences));
+        matcher.match(tokenize("xxx yyy"));
+        assertEquals(0, ((MatcherMetrics) bean).getSentences().getCount());
+    }
+
+    @Test()
+    public void testDictionaryBeans() throws JMException, DictionaryException {
+        String config = "<extensions><extension name=\"" + StubExtension.class.getName() +
+                        "\" prefix=\"stub\"/></extensions>";
+        Dictionary dictionary = Dictionary.getInstance(new ByteArrayInputStream(config.getBytes()));
+        dictionary.registerMBeans("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(1, dictionary.getWord(Locale.ENGLISH, "car").getSynsetIds().size());
+            assertTrue(dictionary.getWord(Locale.ENGLISH, "other").getSynsetIds().isEmpty());
+
+            assertEquals(2L, server.getAttribute(MBeans.name("Dictionary", "test"), "Count"));
+            assertEquals(2L, server.getAttribute(MBeans.name("DictionaryExtension", "test.stub"), "Count"));
+            assertEquals(1L, server.getAttribute(MBeans.name("Dictionary", "test"), "HitCount"));
+            assertEquals(1L, server.getAttribute(MBeans.name("DictionaryExtension", "test.stub"), "HitCount"));
+            assertEquals(0L, server.getAttribute(MBeans.name("DictionaryExtension", "test.stub"), "ErrorCount"));
+        } finally {
+            dictionary.unregisterMBeans();
+        }
+        assertFalse(server.isRegistered(MBeans.name("Dictionary", "test")));
+    }
+
+    public static class StubExtension extends AbstractDictionaryExtension {
+        public StubExtension(String dictionaryPrefix, String configFilePath) throws DictionaryException {
+            super(dictionaryPrefix, configFilePath);
+        }
+
+        public Set<String> getSynsetIDs(Locale language, String word, List<POS> restrictions) {
+            return "car".equals(word) ? Collections.singleton(generateID(null, 1)) : Collections.<String>emptySet();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotationConstants;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternPOSMaskMatcherTest {
+    private static final int POS = TextAnnotationConstants.getLevel(TextAnnotationConstants.POS);
+    private static final int CHK = TextAnnotationConstants.getLevel(TextAnnotationConstants.CHK);
+
+    @Test()
+    public void testGenericMask() {
+        long[] mask = TextAnnotationConstants.getGenericPOSMask("NN*");
+        for (String tag : new String[]{"NN", "NNS", "NNP", "NNPS"}) {
+            assertTrue(tag, TextAnnotationConstants.containsPOSLabel(mask, TextAnnotationConstants
+                    .transformAnnotationLabel(POS, tag)));
+        }
+        for (String tag : new String[]{"VB", "JJ", "DT"}) {
+            assertFalse(tag, TextAnnotationConstants.containsPOSLabel(mask, TextAnnotationConstants
+                    .transformAnnotationLabel(POS, tag)));
+        }
+        assertFalse(TextAnnotationConstants.containsPOSLabel(mask, (byte) -1));
+    }
+
+    @Test()
+    public void testUnknownTag() {
+        assertTrue(TextAnnotationConstants.isEmptyPOSMask(TextAnnotationConstants.getGenericPOSMask("XYZ")));
+        assertFalse(TextAnnotationConstants.isEmptyPOSMask(TextAnnotationConstants.getGenericPOSMask("VBP")));
+    }
+
+    @Test()
+    public void testLabelTables() {
+        assertSame(TextAnnotationConstants.getGenericPOSLabel("NN"), TextAnnotationConstants.getGenericPOSLabel("NN"));
+        assertEquals("VBZ", TextAnnotationConstants.transformAnnotationLabel(POS, TextAnnotationConstants
+                .transformAnnotationLabel(POS, "VBZ")));
+        assertEquals("NN*", TextAnnotationConstants.getGenericPOSLabel(TextAnnotationConstants
+                .transformAnnotationLabel(POS, "NNS")));
+        assertEquals("B-NP", TextAnnotationConstants.transformAnnotationLabel(CHK, TextAnnotationConstants
+                .transformAnnotationLabel(CHK, "B-NP")));
+        assertNotNull(TextAnnotationConstants.transformAnnotationLabel(CHK, (byte) -1));
+        assertNull(TextAnnotationConstants.transformAnnotationLabel(POS, (byte) 127));
+    }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternParallelMatcherTest {
+    private static final String[] WORDS = new String[]{"aaa", "bbb", "ccc", "ddd", "eee"};
+    private static final String[] SUFFIXES = new String[]{"", "", "", "?", "*"};
+
+    private ForkJoinPool pool;
+    private Matcher sequential;
+    private Matcher parallel;
+
+    @Before()
+    public void setup() {
+        pool = new ForkJoinPool(4);
+        sequential = new Matcher();
+        parallel = new Matcher();
+        parallel.setForkJoinPool(pool);
+        parallel.setParallelThreshold(8);
+
+        Random random = new Random(13);
+        for (int i = 0; i < 400; i++) {
+            StringBuilder pattern = new StringBuilder();
+            int length = 1 + random.nextInt(4);
+            for (int j = 0; j < length; j++) {
+                if (j > 0) {
+                    pattern.append(" ");
+                }
+                pattern.append(random.nextInt(10) == 0 ? "$v" + j : WORDS[random.nextInt(WORDS.length)]);
+                pattern.append(j > 0 ? SUFFIXES[random.nextInt(SUFFIXES.length)] : "");
+            }
+            sequential.addMatcher(new PatternMatcher(String.valueOf(i), pattern.toString()));
+            parallel.addMatcher(new PatternMatcher(String.valueOf(i), pattern.toString()));
+        }
+    }
+
+    @After()
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test()
+    public void testSameResultsAsSequential() {
+        Random random = new Random(17);
+        for (int s = 0; s < 50; s++) {
+            int length = 1 + random.nextInt(8);
+            TextAnnotation tokens = new TextAnnotation(length);
+            for (int i = 0; i < length; i++) {
+                tokens.addTextToken(new TextToken(WORDS[random.nextInt(WORDS.length)]));
+            }
+
+            for (int from = 0; from < tokens.size(); from++) {
+                MatchResult expected = sequential.match(tokens, from, tokens.size());
+                MatchResult result = parallel.match(tokens, from, tokens.size());
+                assertEquals(expected.getTemplateID(), result.getTemplateID());
+                assertEquals(expected.getMatchedTokens(), result.getMatchedTokens());
+                assertEquals(expected.getMatchedVars(), result.getMatchedVars());
+            }
+            assertEquals(sequential.match(tokens).getTemplateIDs(), parallel.match(tokens).getTemplateIDs());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternProfilerMatcherTest {
+    private static Matcher setup() {
+        Matcher matcher = new Matcher();
+        matcher.addMatcher(new PatternMatcher("1", "xxx yyy zzz"));
+        matcher.addMatcher(new PatternMatcher("2", "xxx $rest*"));
+        return matcher;
+    }
+
+    @Test()
+    public void testCounters() {
+        Matcher matcher = setup();
+        PatternProfiler profiler = new PatternProfiler();
+        matcher.setProfiler(profiler);
+
+        TextAnnotation tokens = tokenize("xxx yyy zzz");
+        assertEquals("1", matcher.match(tokens, 0, 3).getTemplateID());
+
+        Map<String, PatternProfile> profiles = profiler.snapshot();
+        PatternProfile first = profiles.get("1");
+        assertEquals(1, first.getInvocations());
+        assertEquals(1, first.getMatches());
+        assertEquals(1, first.getWins());
+        assertEquals(3, first.getExaminedTokens());
+        assertEquals(1.0, first.getHitRate(), 0);
+
+        PatternProfile second = profiles.get("2");
+        if (second != null) {
+            assertEquals(0, second.getWins());
+        }
+
+        tokens = tokenize("xxx aaa");
+        assertEquals("2", matcher.match(tokens, 0, 2).getTemplateID());
+        assertEquals(1, profiler.snapshot().get("2").getWins());
+        assertEquals(1, profiler.snapshot().get("1").getWins());
+    }
+
+    @Test()
+    public void testExaminedTokens() {
+        PatternMatcher pattern = new PatternMatcher("1", "xxx yyy");
+        assertEquals(4, pattern.match(tokenize("xxx aaa bbb ccc"), 0, 4).getExaminedTokens());
+        assertEquals(2, pattern.match(tokenize("xxx yyy"), 0, 2).getExaminedTokens());
+        assertEquals(3, pattern.match(tokenize("xxx yyy ccc"), 0, 3).getExaminedTokens());
+        assertEquals(2, pattern.matchExhaustive(tokenize("xxx yyy"), 0, 2).getExaminedTokens());
+    }
+
+    @Test()
+    public void testTopAndReset() {
+        Matcher matcher = setup();
+        PatternProfiler profiler = new PatternProfiler();
+        matcher.setProfiler(profiler);
+        for (int i = 0; i < 10; i++) {
+            matcher.match(tokenize("xxx yyy zzz aaa xxx bbb"));
+        }
+
+        List<PatternProfile> top = profiler.top(1, PatternProfile.BY_INVOCATIONS);
+        assertEquals(1, top.size());
+        assertEquals(profiler.snapshot().size(), profiler.top(5).size());
+        assertFalse(profiler.report(5).isEmpty());
+
+        Map<String, PatternProfile> before = profiler.snapshotAndReset();
+        assertTrue(before.get(top.get(0).getId()).getInvocations() >= 10);
+        assertEquals(0, profiler.snapshot().get(top.get(0).getId()).getInvocations());
+
+        profiler.reset();
+        assertTrue(profiler.snapshot().isEmpty());
+
+        matcher.setProfiler(null);
+        matcher.match(tokenize("xxx yyy zzz"));
+        assertTrue(profiler.snapshot().isEmpty());
+    }
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+import org.syn.n.bad.pattern.token.TokenMatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternSharedMatcherTest {
+    private static final String[][] PATTERNS = {
+            {"1", "i want to go"},
+            {"2", "you want to go"},
+            {"3", "i want to go"},
+            {"4", "can you $what* please"},
+            {"5", "can i $what* please"},
+            {"6", "i want $what? go"},
+    };
+    private static final String[] WORDS = {"i", "you", "want", "to", "go", "can", "please", "now"};
+
+    private static TokenMatcher child(TokenMatcher node, String text) {
+        for (TokenMatcher child : node.getMatcherList()) {
+            if (child.toString().equals(text)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static String unshared(TextAnnotation tokens, int from, boolean exhaustive) {
+        String id = null;
+        int window = -1;
+        int count = 0;
+        for (String[] pattern : PATTERNS) {
+            PatternMatcher matcher = new PatternMatcher(pattern[0], pattern[1]);
+            PatternMatcher.PatternMatch pm = exhaustive ? matcher.matchExhaustive(tokens, from, tokens.size()) :
+                                             matcher.match(tokens, from, tokens.size());
+            if (pm.getMatchCount() > count || (pm.getMatchCount() == count && pm.getMatchWindow() < window)) {
+                id = pattern[0];
+                window = pm.getMatchWindow();
+                count = pm.getMatchCount();
+            }
+        }
+        return id + "/" + window;
+    }
+
+    private static String describe(MatchResult result) {
+        return result.getTemplateID() + "/" + result.getMatchedTokens();
+    }
+
+    @Test()
+    public void testSharing() {
+        Matcher matcher = new Matcher();
+        PatternMatcher first = new PatternMatcher("1", "i want to go");
+        PatternMatcher second = new PatternMatcher("2", "you want to go");
+        PatternMatcher third = new PatternMatcher("3", "i want to go");
+        matcher.addMatcher(first);
+        matcher.addMatcher(second);
+        matcher.addMatcher(third);
+
+        assertSame(first.getStart(), third.getStart());
+        assertNotSame(first.getStart(), second.getStart());
+        assertSame(child(child(first.getStart(), "i"), "want"), child(child(second.getStart(), "you"), "want"));
+
+        matcher.removeMatcher(first);
+        matcher.removeMatcher(second);
+        matcher.removeMatcher(third);
+        assertEquals(0, matcher.getPool().size());
+    }
+
+    @Test()
+    public void testPatternNotChanged() {
+        PatternMatcher pattern = new PatternMatcher("1", "i want to go");
+        TokenMatcher start = pattern.getStart();
+        List<TokenMatcher> children = new ArrayList<TokenMatcher>(start.getMatcherList());
+
+        Matcher first = new Matcher();
+        first.addMatcher(new PatternMatcher("2", "you want to go"));
+        first.addMatcher(pattern);
+        TokenMatcher shared = pattern.getStart();
+        List<TokenMatcher> sharedChildren = new ArrayList<TokenMatcher>(shared.getMatcherList());
+        assertEquals(children, start.getMatcherList());
+
+        // registering the same pattern in another matcher leaves the nodes the first one walks as they were
+        Matcher second = new Matcher();
+        second.addMatcher(pattern);
+        assertEquals(sharedChildren, shared.getMatcherList());
+        assertEquals(children, start.getMatcherList());
+
+        TextAnnotation tokens = tokenize("i want to go");
+        assertEquals("1", first.match(tokens, 0, 4).getTemplateID());
+        assertEquals("1", second.match(tokens, 0, 4).getTemplateID());
+    }
+
+    @Test()
+    public void testSameAsUnshared() {
+        Matcher scan = new Matcher();
+        Matcher compiled = new Matcher();
+        compiled.setCompiled(true);
+        Matcher exhaustive = new Matcher();
+        exhaustive.setExhaustive(true);
+        for (String[] pattern : PATTERNS) {
+            scan.addMatcher(new PatternMatcher(pattern[0], pattern[1]));
+            compiled.addMatcher(new PatternMatcher(pattern[0], pattern[1]));
+            exhaustive.addMatcher(new PatternMatcher(pattern[0], pattern[1]));
+        }
+
+        Random random = new Random(5);
+        for (int sentence = 0; sentence < 200; sentence++) {
+            TextAnnotation tokens = new TextAnnotation();
+            int size = 1 + random.nextInt(8);
+            for (int i = 0; i < size; i++) {
+                tokens.addTextToken(new TextToken(WORDS[random.nextInt(WORDS.length)]));
+            }
+
+            for (int from = 0; from < size; from++) {
+                String message = tokens.getTokens() + " @" + from;
+                String expected = unshared(tokens, from, false);
+                assertEquals(message, expected, describe(scan.match(tokens, from, size)));
+                assertEquals(message, expected, describe(compiled.match(tokens, from, size)));
+                assertEquals(message, unshared(tokens, from, true), describe(exhaustive.match(tokens, from, size)));
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.EncodedTokens;
+import org.syn.n.bad.annotation.TextAnnotation;
+import org.syn.n.bad.annotation.TextToken;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternSpansMatcherTest {
+    private Matcher matcher;
+    private TextAnnotation tokens;
+
+    @Before()
+    public void setup() {
+        matcher = new Matcher();
+        matcher.addMatcher(new PatternMatcher("ab", "aaa bbb"));
+        matcher.addMatcher(new PatternMatcher("bcd", "bbb ccc ddd"));
+        matcher.addMatcher(new PatternMatcher("cd", "ccc ddd"));
+        matcher.addMatcher(new PatternMatcher("de", "ddd eee"));
+
+        String[] split = "aaa bbb ccc ddd eee".split(" ");
+        tokens = new TextAnnotation(split.length);
+        for (String token : split) {
+            tokens.addTextToken(new TextToken(token));
+        }
+    }
+
+    @Test()
+    public void testKeepOverlaps() {
+        List<MatchSpan> spans = matcher.matchSpans(tokens);
+        assertEquals("[ab[0,2), bcd[1,4), cd[2,4), de[3,5)]", spans.toString());
+        assertEquals(3, spans.get(1).getMatchCount());
+    }
+
+    @Test()
+    public void testGreedyLongest() {
+        assertEquals("[bcd[1,4)]", matcher.matchSpans(tokens, OverlapPolicy.GREEDY_LONGEST).toString());
+    }
+
+    @Test()
+    public void testWeightedInterval() {
+        assertEquals("[ab[0,2), cd[2,4)]", matcher.matchSpans(tokens, OverlapPolicy.WEIGHTED_INTERVAL).toString());
+    }
+
+    @Test()
+    public void testSinglePass() {
+        String[] patterns = {"aaa bbb", "bbb $name* ddd", "ccc? ddd", "aaa+ ccc", "$any eee", "bbb ddd eee"};
+        String[] vocabulary = {"aaa", "bbb", "ccc", "ddd", "eee", "fff"};
+
+        MatcherSnapshot snapshot = new MatcherSnapshot();
+        for (int i = 0; i < patterns.length; i++) {
+            snapshot = snapshot.add(new PatternMatcher(String.valueOf(i), patterns[i], null, Locale.ENGLISH, 0, 2));
+        }
+
+        // the automaton pass must find the same spans as walking every pattern from every position
+        Random random = new Random(7);
+        for (int sentence = 0; sentence < 200; sentence++) {
+            TextAnnotation text = new TextAnnotation();
+            int size = 1 + random.nextInt(12);
+            for (int i = 0; i < size; i++) {
+                text.addTextToken(new TextToken(vocabulary[random.nextInt(vocabulary.length)]));
+            }
+
+            EncodedTokens encoded = new EncodedTokens(text);
+            List<MatchSpan> expected = snapshot.matchSpans(encoded, snapshot.getMatchers(), MatchMode.SCAN, null);
+            List<MatchSpan> actual = snapshot.matchSpans(encoded, null);
+            assertEquals(expected.toString(), actual.toString());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getMatchCount(), actual.get(i).getMatchCount());
+                assertEquals(expected.get(i).getMatchedVars(), actual.get(i).getMatchedVars());
+            }
+        }
+    }
+
+    @Test()
+    public void testModes() {
+        String expected = matcher.matchSpans(tokens).toString();
+
+        matcher.setCompiled(true);
+        assertEquals(expected, matcher.matchSpans(tokens).toString());
+        matcher.setCompiled(false);
+
+        matcher.setExhaustive(true);
+        assertEquals(expected, matcher.matchSpans(tokens).toString());
+    }
+}
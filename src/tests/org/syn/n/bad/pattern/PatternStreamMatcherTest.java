@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextToken;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternStreamMatcherTest {
+    private Matcher matcher;
+    private Map<String, PatternMatcher> patterns;
+
+    @Before()
+    public void setup() {
+        patterns = new HashMap<String, PatternMatcher>();
+        patterns.put("1", new PatternMatcher("1", "xxx yyy zzz", "mood=happy"));
+        patterns.put("2", new PatternMatcher("2", "xxx yyy"));
+        patterns.put("3", new PatternMatcher("3", "aaa $name bbb"));
+        patterns.put("4", new PatternMatcher("4", "ccc ddd*"));
+
+        matcher = new Matcher();
+        for (int i = 1; i <= patterns.size(); i++) {
+            matcher.addMatcher(patterns.get(String.valueOf(i)));
+        }
+    }
+
+    private static List<String> push(MatchSession session, String token) {
+        List<String> result = new ArrayList<String>();
+        for (MatchSpan span : session.push(new TextToken(token))) {
+            result.add(span.toString());
+        }
+        return result;
+    }
+
+    @Test()
+    public void testPush() {
+        MatchSession session = matcher.openSession();
+        assertEquals(Arrays.<String>asList(), push(session, "aaa"));
+        assertEquals(Arrays.<String>asList(), push(session, "xxx"));
+        assertEquals(Arrays.asList("2[1,3)"), push(session, "yyy"));
+        assertEquals(Arrays.asList("1[1,4)"), push(session, "zzz"));
+        assertEquals(4, session.size());
+    }
+
+    @Test()
+    public void testRepeatedMatch() {
+        MatchSession session = matcher.openSession();
+        assertEquals(Arrays.asList("4[0,1)"), push(session, "ccc"));
+        assertEquals(Arrays.asList("4[0,2)"), push(session, "ddd"));
+        assertEquals(Arrays.asList("4[0,3)"), push(session, "ddd"));
+        assertEquals(Arrays.<String>asList(), push(session, "eee"));
+        assertEquals(0, session.getActiveStates());
+    }
+
+    @Test()
+    public void testVariablesAndStyles() {
+        MatchSession session = matcher.openSession();
+        session.push(new TextToken("aaa"));
+        session.push(new TextToken("ccc"));
+        List<MatchSpan> spans = session.push(new TextToken("bbb"));
+
+        assertEquals(1, spans.size());
+        assertEquals("3", spans.get(0).getTemplateID());
+        assertEquals("ccc", spans.get(0).getMatchedVars().get("name"));
+        assertEquals("*", spans.get(0).getStyleLabels().get("mood"));
+
+        session.reset();
+        assertEquals(0, session.size());
+        session.push(new TextToken("xxx"));
+        session.push(new TextToken("yyy"));
+        spans = session.push(new TextToken("zzz"));
+        assertEquals("happy", spans.get(0).getStyleLabels().get("mood"));
+    }
+
+    @Test()
+    public void testSameAsPatternWalk() {
+        MatchSession session = matcher.openSession();
+        for (String token : "xxx aaa xxx yyy ccc ddd aaa eee bbb xxx yyy zzz".split(" ")) {
+            for (MatchSpan span : session.push(new TextToken(token))) {
+                PatternMatcher.PatternMatch match = patterns.get(span.getTemplateID())
+                        .match(session.getTokens(), span.getStart(), span.getEnd());
+                assertTrue(span.toString(), match.getMatchCount() > 0);
+                assertEquals(span.toString(), span.getMatchedTokens(), match.getMatchWindow());
+                assertEquals(span.toString(), span.getMatchCount(), match.getMatchCount());
+            }
+        }
+    }
+
+    @Test()
+    public void testRetract() {
+        MatchSession session = matcher.openSession();
+        push(session, "xxx");
+        assertEquals(Arrays.asList("2[0,2)"), push(session, "yyy"));
+        assertEquals(Arrays.<String>asList(), push(session, "www"));
+        assertEquals(Arrays.<String>asList(), push(session, "aaa"));
+
+        session.retract(2);
+        assertEquals(2, session.size());
+        assertEquals(Arrays.asList("1[0,3)"), push(session, "zzz"));
+
+        session.retract(3);
+        assertEquals(0, session.size());
+        assertEquals(0, session.getActiveStates());
+        assertEquals(Arrays.asList("4[0,1)"), push(session, "ccc"));
+        assertEquals(Arrays.asList("4[0,2)"), push(session, "ddd"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRetractTooMany() {
+        MatchSession session = matcher.openSession();
+        push(session, "xxx");
+        session.retract(2);
+    }
+}
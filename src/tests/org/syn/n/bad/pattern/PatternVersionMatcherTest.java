@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) Ovidiu Serban, ovidiu@roboslang.org
+ *               web:http://ovidiu.roboslang.org/
+ * All Rights Reserved. Use is subject to license terms.
+ *
+ * This file was part of AgentSlang Project (http://agent.roboslang.org/),
+ * now is available as an independent library on GitHub:
+ * 		https://github.com/ovidiusx/syn-bad
+ *
+ * Syn!bad is free software: you can redistribute it and/or modify it under the terms of the GNU Lesser General
+ * Public License as published by the Free Software Foundation, version 3 of the License.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the
+ * implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with this program. If not,
+ * see <http://www.gnu.org/licenses/>.
+ *
+ * The usage of this project makes mandatory the authors citation in any scientific publication or technical reports.
+ * Please use the following articles:
+ *
+ * Syn!bad citation:
+ *
+ * O. Serban. Syn!bad: A Synonym-Based Regular Expression Extension For Knowledge Extraction Tasks,
+ * Studia Universitatis "Babes-Bolyai", Series Informatica, Volume LIX, Number 1 (June 2014),
+ * pages 5 - 15, 2014.
+ *
+ * AgentSlang platform citation:
+ *
+ * O. Serban and A. Pauchet. AgentSlang: A Fast and Reliable Platform for Distributed Interactive
+ * Systems, International Conference on Intelligent Computer Communication and Processing (ICCP),
+ * pages 35 - 42, IEEE CPS, 2013.
+ *
+ * For websites or research projects the AgentSlang website and logo needs to be linked in a visible area.
+ ******************************************************************************/
+
+package org.syn.n.bad.pattern;
+
+import org.junit.Test;
+import org.syn.n.bad.annotation.TextAnnotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.syn.n.bad.pattern.TestTokens.tokenize;
+
+/**
+ * @author Ovidiu Serban, ovidiu@roboslang.org
+ * @version 10/18/26
+ */
+public class PatternVersionMatcherTest {
+    @Test()
+    public void testBulkUpdate() {
+        Matcher matcher = new Matcher();
+        long start = matcher.getVersion().getNumber();
+
+        List<PatternMatcher> patterns = new ArrayList<PatternMatcher>();
+        for (int i = 0; i < 100; i++) {
+            patterns.add(new PatternMatcher("p" + i, "xxx word" + i));
+        }
+        MatcherVersion version = matcher.update().addAll(patterns).publish();
+        assertEquals(start + 1, version.getNumber());
+        assertEquals(100, version.getMatchers().size());
+        assertSame(patterns.get(42), matcher.getMatcher("p42"));
+        assertEquals("p42", matcher.match(tokenize("xxx word42"), 0, 2).getTemplateID());
+
+        version = matcher.update().remove("p42").remove("p7").remove("missing").publish();
+        assertEquals(start + 2, version.getNumber());
+        assertEquals(98, version.getMatchers().size());
+        assertNull(matcher.getMatcher("p42"));
+        assertNull(matcher.match(tokenize("xxx word42"), 0, 2).getTemplateID());
+
+        matcher.removeMatcher("p8");
+        assertEquals(97, matcher.getVersion().getMatchers().size());
+        assertEquals(start + 3, matcher.getVersion().getNumber());
+    }
+
+    @Test()
+    public void testBulkReplace() {
+        Matcher matcher = new Matcher();
+        List<PatternMatcher> patterns = new ArrayList<PatternMatcher>();
+        for (int i = 0; i < 2000; i++) {
+            patterns.add(new PatternMatcher("p" + i, "xxx word" + i));
+        }
+        matcher.update().addAll(patterns).add(new PatternMatcher("last", "xxx $rest")).publish();
+        matcher.addMatcher(new PatternMatcher("p7", "xxx again"));
+
+        List<PatternMatcher> replacements = new ArrayList<PatternMatcher>();
+        for (int i = 0; i < 2000; i += 2) {
+            replacements.add(new PatternMatcher("p" + i, "xxx other" + i));
+        }
+        MatcherVersion version = matcher.update().addAll(replacements).remove("p7").remove("p9").publish();
+        assertEquals(1999, version.getMatchers().size());
+        assertEquals("p0", version.getMatchers().get(0).getId());
+        assertEquals("p1", version.getMatchers().get(1).getId());
+
+        assertEquals("p42", matcher.match(tokenize("xxx other42"), 0, 2).getTemplateID());
+        assertEquals("last", matcher.match(tokenize("xxx word42"), 0, 2).getTemplateID());
+        assertEquals("p43", matcher.match(tokenize("xxx word43"), 0, 2).getTemplateID());
+        assertEquals("last", matcher.match(tokenize("xxx word9"), 0, 2).getTemplateID());
+        assertEquals("last", matcher.match(tokenize("xxx again"), 0, 2).getTemplateID());
+    }
+
+    @Test()
+    public void testReplaceKeepsRank() {
+        Matcher matcher = new Matcher();
+        matcher.update().add(new PatternMatcher("a", "xxx yyy", "mood=old"))
+               .add(new PatternMatcher("b", "xxx yyy")).publish();
+        matcher.update().add(new PatternMatcher("a", "xxx yyy", "mood=new")).publish();
+
+        MatchResult result = matcher.match(tokenize("xxx yyy"), 0, 2);
+        assertEquals("a", result.getTemplateID());
+        assertEquals("new", result.getStyleLabels().get("mood"));
+        assertEquals(2, matcher.getVersion().getMatchers().size());
+    }
+
+    @Test()
+    public void testPinnedVersion() {
+        Matcher matcher = new Matcher();
+        matcher.update().add(new PatternMatcher("1", "xxx yyy")).publish();
+        MatcherVersion pinned = matcher.getVersion();
+
+        matcher.update().replaceAll(Arrays.asList(new PatternMatcher("2", "aaa bbb"))).publish();
+
+        TextAnnotation tokens = tokenize("xxx yyy aaa bbb");
+        assertEquals(Arrays.asList("1"), pinned.match(tokens).getTemplateIDs());
+        assertEquals(Arrays.asList("2"), matcher.match(tokens).getTemplateIDs());
+        assertEquals(Arrays.asList("2"), matcher.getVersion().match(tokens).getTemplateIDs());
+        assertNull(pinned.getMatcher("2"));
+
+        matcher.update().replaceAll(Collections.<PatternMatcher>emptyList()).publish();
+        assertEquals(0, matcher.getPool().size());
+        assertTrue(matcher.match(tokens).getTemplateIDs().isEmpty());
+        assertEquals(Arrays.asList("1"), pinned.match(tokens).getTemplateIDs());
+    }
+}